@@ -0,0 +1,81 @@
+package com.example.restwebservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, e.g. the last release's {@code jmh-result.json} kept as
+ * {@code benchmarks/baseline.json} against a fresh run. Benchmarks are matched by name and
+ * parameters. A benchmark regresses when its score is more than {@code maxRegressionPercent}
+ * worse and the change exceeds the combined error of both runs. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec@jmh-compare}; exits with 1 on any regression.
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.1;
+        if (!new File(args[0]).exists()) {
+            System.out.println("No baseline at " + args[0] + ", nothing to compare");
+            return;
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", metric.get("score").asDouble(), "new");
+                continue;
+            }
+            JsonNode beforeMetric = before.get("primaryMetric");
+            double old = beforeMetric.get("score").asDouble();
+            double now = metric.get("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            double change = old == 0 ? 0 : (now - old) / old;
+            double worse = higherIsBetter ? -change : change;
+            boolean regressed = worse > maxRegression
+                    && Math.abs(now - old) > error(beforeMetric) + error(metric);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), old, now, change * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d benchmarks, %d regressions over %.0f%%%n", current.size(), regressions, maxRegression * 100);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
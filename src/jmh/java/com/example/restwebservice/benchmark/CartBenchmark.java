@@ -0,0 +1,63 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.dto.CartDto;
+import com.example.restwebservice.services.CartStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding to and removing from a cart that already holds {@code lines} products. Every call
+ * returns a {@link CartDto} copy of the cart, so the score grows with the cart size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    private static final String LOGIN = "user@aa.aa";
+
+    @Param({"10", "1000"})
+    private int lines;
+
+    private CartStore cartStore;
+
+    @Setup
+    public void setUp() {
+        cartStore = new CartStore(16, 100_000, Duration.ofHours(24), "", new ObjectMapper());
+        for (int p = 1; p <= lines; p++) {
+            cartStore.add(LOGIN, p, "Product " + p, 100 + p, 1);
+        }
+    }
+
+    @Benchmark
+    public CartDto addExistingProduct() {
+        return cartStore.add(LOGIN, lines / 2 + 1, "Product", 100, 1);
+    }
+
+    @Benchmark
+    public CartDto addThenRemoveNewProduct() {
+        cartStore.add(LOGIN, lines + 1, "Product", 100, 1);
+        return cartStore.remove(LOGIN, lines + 1, 1);
+    }
+
+    @Benchmark
+    public CartDto get() {
+        return cartStore.get(LOGIN);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.dto.OrderDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.UserDto;
+import com.example.restwebservice.dto.converters.OrderConverter;
+import com.example.restwebservice.dto.converters.ProductConverter;
+import com.example.restwebservice.dto.converters.RoleConverter;
+import com.example.restwebservice.dto.converters.UserConverter;
+import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.entities.Order;
+import com.example.restwebservice.entities.OrderLine;
+import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.entities.Role;
+import com.example.restwebservice.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion of detached graphs shaped like the endpoint responses: a page of
+ * products, a user's orders with their products, and a whole user with orders and roles. The
+ * toDto paths do not touch the repositories, so the converters are built without them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int PRODUCTS_PER_ORDER = 10;
+
+    @Param({"100"})
+    private int pageSize;
+
+    @Param({"20"})
+    private int orders;
+
+    private ProductConverter productConverter;
+    private OrderConverter orderConverter;
+    private UserConverter userConverter;
+    private List<Product> products;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        productConverter = new ProductConverter(null);
+        orderConverter = new OrderConverter(productConverter, null);
+        userConverter = new UserConverter(orderConverter, new RoleConverter());
+        List<Category> categories = new ArrayList<>();
+        for (int c = 1; c <= 10; c++) {
+            categories.add(Category.builder().id(c).name("Category " + c).imagePath("category.jpg").rating(c % 5).build());
+        }
+        products = new ArrayList<>(pageSize);
+        for (int p = 1; p <= pageSize; p++) {
+            products.add(Product.builder().id(p).name("Product " + p).description("Description of product " + p)
+                    .price(100 + p).category(categories.get(p % categories.size())).imagePath("product.jpg").build());
+        }
+        user = User.builder().id(1).name("User").surname("Surname").birthday(LocalDate.of(1990, 1, 1))
+                .email("user@aa.aa").password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Y2qHLkO5eV7RUzYxCgyT6W")
+                .balance(1000).address("Minsk 12-12").phoneNumber("+375295555550")
+                .roles(List.of(Role.builder().id(1).name("USER").build(), Role.builder().id(2).name("ADMIN").build()))
+                .build();
+        List<Order> userOrders = new ArrayList<>(orders);
+        for (int o = 0; o < orders; o++) {
+            int from = (o * PRODUCTS_PER_ORDER) % (pageSize - PRODUCTS_PER_ORDER);
+            userOrders.add(Order.builder().id(o + 1).price(1000).date(LocalDate.of(2023, 1, 1).plusDays(o)).user(user)
+                    .lines(products.subList(from, from + PRODUCTS_PER_ORDER).stream().map(p -> new OrderLine(p, 1)).toList()).build());
+        }
+        user.setOrder(userOrders);
+    }
+
+    @Benchmark
+    public List<ProductDto> productPage() {
+        return products.stream().map(productConverter::toDto).toList();
+    }
+
+    @Benchmark
+    public List<OrderDto> userOrders() {
+        return user.getOrder().stream().map(orderConverter::toDto).toList();
+    }
+
+    @Benchmark
+    public UserDto userWithOrdersAndRoles() {
+        return userConverter.toDto(user);
+    }
+}
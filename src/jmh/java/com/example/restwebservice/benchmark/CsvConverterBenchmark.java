@@ -0,0 +1,50 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.csv.ProductDtoCsvConverter;
+import com.example.restwebservice.dto.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-product cost of the product list column in the order and category CSV export and import.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvConverterBenchmark {
+
+    private ProductDtoCsvConverter converter;
+    private ProductDto product;
+    private String cell;
+
+    @Setup
+    public void setUp() {
+        converter = new ProductDtoCsvConverter();
+        product = ProductDto.builder().id(12345).name("Product 12345").description("Description of product 12345")
+                .price(999).categoryId(17).imagePath("product.jpg").build();
+        cell = converter.convertToWrite(product);
+    }
+
+    @Benchmark
+    public Object convertToRead() {
+        return converter.convertToRead(cell);
+    }
+
+    @Benchmark
+    public String convertToWrite() {
+        return converter.convertToWrite(product);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.config.JwtProvider;
+import com.example.restwebservice.config.VerifiedTokenCache;
+import com.example.restwebservice.dto.RoleDto;
+import com.example.restwebservice.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the former validate + getClaims path
+ * (two parser builds, two HMAC verifications), the single-pass parse with a prebuilt parser,
+ * and a hit in {@link VerifiedTokenCache}. Token generation and {@link JwtProvider#validateAccessToken}
+ * are measured alongside, as used by login and refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String ACCESS_SECRET = "qBTmv4oXFFR2GwjexDJ4t6fsIUIUhhXqlktXjXdkcyygs8nPVEwMfo29VDRRepYDVV5IkIxBMzr7OEHXEHd37w==";
+    private static final String REFRESH_SECRET = "zL1HB3Pch05Avfynovxrf/kpF9O2m4NCWKJUjEp27s9J2jEG3ifiKCGylaZ8fDeoONSTJP/wAzKawB8F9rOMNg==";
+
+    private SecretKey accessKey;
+    private JwtProvider jwtProvider;
+    private VerifiedTokenCache verifiedTokenCache;
+    private UserDto user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        accessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(ACCESS_SECRET));
+        jwtProvider = new JwtProvider(ACCESS_SECRET, REFRESH_SECRET);
+        verifiedTokenCache = new VerifiedTokenCache(jwtProvider, 10_000);
+        user = UserDto.builder()
+                .email("user@aa.aa")
+                .roles(List.of(RoleDto.builder().id(1).name("USER").build()))
+                .build();
+        token = jwtProvider.generateAccessToken(user);
+        verifiedTokenCache.getAccessClaims(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtProvider.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtProvider.validateAccessToken(token);
+    }
+
+    @Benchmark
+    public String validateThenParse() {
+        Jwts.parserBuilder().setSigningKey(accessKey).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(accessKey).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return jwtProvider.parseAccessToken(token).map(Claims::getSubject).orElse(null);
+    }
+
+    @Benchmark
+    public String cached() {
+        return verifiedTokenCache.getAccessClaims(token).map(Claims::getSubject).orElse(null);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.RestWebServiceApplication;
+import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.converters.CategoryConverter;
+import com.example.restwebservice.dto.converters.ProductConverter;
+import com.example.restwebservice.repositories.CategoryRepository;
+import com.example.restwebservice.repositories.ProductRepository;
+import com.example.restwebservice.services.CategoryService;
+import com.example.restwebservice.services.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entity + converter path of the list endpoints with the projection queries
+ * on 100k products. Run with {@code mvn -Pbenchmark test-compile exec:exec@jmh}, allocation
+ * figures come from the gc profiler ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int CATEGORIES = 100;
+
+    @Param({"1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private CategoryRepository categoryRepository;
+    private ProductConverter productConverter;
+    private CategoryConverter categoryConverter;
+    private ProductService productService;
+    private CategoryService categoryService;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestWebServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        productRepository = context.getBean(ProductRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        productConverter = context.getBean(ProductConverter.class);
+        categoryConverter = context.getBean(CategoryConverter.class);
+        productService = context.getBean(ProductService.class);
+        categoryService = context.getBean(CategoryService.class);
+        readOnly = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readOnly.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDto> productsEntities() {
+        return readOnly.execute(status -> productRepository
+                .findAll(PageRequest.of(0, pageSize, Sort.by("name").ascending()))
+                .stream().map(productConverter::toDto).toList());
+    }
+
+    @Benchmark
+    public List<ProductDto> productsProjection() {
+        return productService.getAllProducts(0, pageSize, "name");
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoriesEntities() {
+        return readOnly.execute(status -> categoryRepository
+                .findAll(PageRequest.of(0, CATEGORIES, Sort.by("id").ascending()))
+                .stream().map(categoryConverter::toDto).toList());
+    }
+
+    @Benchmark
+    public List<CategoryDto> categoriesProjection() {
+        return categoryService.getAllCategories(0, CATEGORIES, "id");
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> categories = new ArrayList<>(CATEGORIES);
+        for (int c = 1; c <= CATEGORIES; c++) {
+            categories.add(new Object[]{c, "Category " + c, "category.jpg", c % 5});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, image_path, rating) VALUES (?, ?, ?, ?)", categories);
+        List<Object[]> products = new ArrayList<>(PRODUCTS);
+        for (int p = 1; p <= PRODUCTS; p++) {
+            products.add(new Object[]{p, "Product " + p, "Description of product " + p, 100 + p % 900,
+                    1 + p % CATEGORIES, "product.jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, category_id, image_path) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", products);
+    }
+}
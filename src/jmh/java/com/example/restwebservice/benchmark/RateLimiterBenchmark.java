@@ -0,0 +1,58 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.config.RateLimitGroup;
+import com.example.restwebservice.config.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limiter adds to a request: group lookup plus one bucket update, for a single
+ * hot client (CAS contention) and for requests spread over 10k clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(1_000_000, 1_000_000, 1_000_000, 1_000_000, 1_000_000, 1_000_000);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long hotClient() {
+        RateLimitGroup group = rateLimiter.resolve("/products/all");
+        return group.tryAcquire("user@aa.aa", System.nanoTime());
+    }
+
+    @Benchmark
+    public long manyClients() {
+        RateLimitGroup group = rateLimiter.resolve("/products/search");
+        return group.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)], System.nanoTime());
+    }
+}
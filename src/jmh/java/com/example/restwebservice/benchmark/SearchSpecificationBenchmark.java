@@ -0,0 +1,82 @@
+package com.example.restwebservice.benchmark;
+
+import com.example.restwebservice.RestWebServiceApplication;
+import com.example.restwebservice.dto.SearchParamsDto;
+import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.repositories.ProductSearchSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the criteria query of the database search fallback, without executing it: all
+ * filters set (with the category join) and none set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchSpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private ProductSearchSpecification allFilters;
+    private ProductSearchSpecification noFilters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RestWebServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        allFilters = new ProductSearchSpecification(SearchParamsDto.builder()
+                .searchKey("phone").priceFrom(100).priceTo(900).categoryName("electronics").build());
+        noFilters = new ProductSearchSpecification(SearchParamsDto.builder().build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Product> allFilters() {
+        return build(allFilters);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Product> noFilters() {
+        return build(noFilters);
+    }
+
+    private CriteriaQuery<Product> build(ProductSearchSpecification specification) {
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return query.where(specification.toPredicate(root, query, criteriaBuilder));
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.metrics.MetricsSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of single products and categories (with their products). Both caches use
+ * Caffeine's W-TinyLFU policy, bounded by an estimate of the retained bytes, with a write TTL as
+ * a safety net for changes made outside this instance. Invalidation runs immediately and again
+ * when the surrounding transaction completes, so a read racing the commit cannot keep stale data.
+ * <p>
+ * Misses go through a {@link SingleFlight} per cache so concurrent callers share one query, and
+ * entries are refreshed ahead of expiry with the XFetch rule: a read refreshes once
+ * {@code now - loadTime * beta * ln(random)} passes the expiry, which makes early refreshes more
+ * likely the closer an entry is to expiring and the slower it is to load.
+ */
+@Component
+@Slf4j
+public class CatalogCache implements MetricsSource {
+
+    private static final int OBJECT_OVERHEAD = 64;
+
+    private final Cache<Integer, Entry<ProductDto>> products;
+    private final Cache<Integer, Entry<CategoryDto>> categories;
+    private final SingleFlight<Integer, ProductDto> productFlights;
+    private final SingleFlight<Integer, CategoryDto> categoryFlights;
+    private final SingleFlight<Object, Object> queryFlights;
+    private final AtomicLong productsGeneration = new AtomicLong();
+    private final AtomicLong categoriesGeneration = new AtomicLong();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final long ttlNanos;
+    private final double beta;
+
+    public CatalogCache(@Value("${catalog.cache.products.max-bytes:33554432}") long productsMaxBytes,
+                        @Value("${catalog.cache.categories.max-bytes:33554432}") long categoriesMaxBytes,
+                        @Value("${catalog.cache.ttl:PT1H}") Duration ttl,
+                        @Value("${catalog.cache.load-timeout:PT2S}") Duration loadTimeout,
+                        @Value("${catalog.cache.early-refresh-beta:1.0}") double beta) {
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(productsMaxBytes)
+                .weigher((Integer id, Entry<ProductDto> entry) -> weigh(entry.value()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.categories = Caffeine.newBuilder()
+                .maximumWeight(categoriesMaxBytes)
+                .weigher((Integer id, Entry<CategoryDto> entry) -> weigh(entry.value()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.productFlights = new SingleFlight<>(loadTimeout);
+        this.categoryFlights = new SingleFlight<>(loadTimeout);
+        this.queryFlights = new SingleFlight<>(loadTimeout);
+        this.ttlNanos = ttl.toNanos();
+        this.beta = beta;
+    }
+
+    public ProductDto getProduct(int id, Function<Integer, ProductDto> loader) {
+        return get(products, productFlights, productsGeneration, id, loader);
+    }
+
+    public CategoryDto getCategory(int id, Function<Integer, CategoryDto> loader) {
+        return get(categories, categoryFlights, categoriesGeneration, id, loader);
+    }
+
+    /**
+     * Shares one execution of an uncached query between concurrent callers with an equal key.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V coalesce(Object key, Supplier<V> query) {
+        return (V) queryFlights.execute(key, (Supplier<Object>) query);
+    }
+
+    /**
+     * Drops a product and the category that lists it.
+     */
+    public void invalidateProduct(int id, int categoryId) {
+        Invalidation.onCompletion(() -> {
+            productsGeneration.incrementAndGet();
+            categoriesGeneration.incrementAndGet();
+            products.invalidate(id);
+            categories.invalidate(categoryId);
+        });
+    }
+
+    /**
+     * Drops products and the categories that list them before or after a change.
+     */
+    public void invalidateProducts(Collection<Integer> ids, Collection<Integer> categoryIds) {
+        Invalidation.onCompletion(() -> {
+            productsGeneration.incrementAndGet();
+            categoriesGeneration.incrementAndGet();
+            products.invalidateAll(ids);
+            categories.invalidateAll(categoryIds);
+        });
+    }
+
+    public void invalidateCategories(Collection<Integer> ids) {
+        Invalidation.onCompletion(() -> {
+            categoriesGeneration.incrementAndGet();
+            categories.invalidateAll(ids);
+        });
+    }
+
+    /**
+     * Drops a category together with its products, e.g. after a cascading delete.
+     */
+    public void invalidateCategory(int id) {
+        Invalidation.onCompletion(() -> {
+            productsGeneration.incrementAndGet();
+            categoriesGeneration.incrementAndGet();
+            categories.invalidate(id);
+            products.asMap().values().removeIf(e -> e.value().getCategoryId() == id);
+        });
+    }
+
+    public void invalidateAll() {
+        Invalidation.onCompletion(() -> {
+            productsGeneration.incrementAndGet();
+            categoriesGeneration.incrementAndGet();
+            products.invalidateAll();
+            categories.invalidateAll();
+        });
+    }
+
+    @Override
+    public String metricsName() {
+        return "catalogCache";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        putStats(metrics, "products", products, productFlights);
+        putStats(metrics, "categories", categories, categoryFlights);
+        metrics.put("queries.loads", queryFlights.getLoads());
+        metrics.put("queries.coalesced", queryFlights.getCoalesced());
+        metrics.put("queries.timeouts", queryFlights.getTimeouts());
+        metrics.put("queries.averageLoadMillis", queryFlights.getAverageLoadMillis());
+        metrics.put("earlyRefreshes", earlyRefreshes.sum());
+        return metrics;
+    }
+
+    private <V> V get(Cache<Integer, Entry<V>> cache, SingleFlight<Integer, V> flights, AtomicLong generation,
+                      int id, Function<Integer, V> loader) {
+        Entry<V> entry = cache.getIfPresent(id);
+        if (entry != null && !shouldRefreshEarly(entry)) {
+            return entry.value();
+        }
+        Supplier<V> load = () -> {
+            long observed = generation.get();
+            long start = System.nanoTime();
+            V value = loader.apply(id);
+            long now = System.nanoTime();
+            if (generation.get() == observed) {
+                cache.put(id, new Entry<>(value, now - start, now + ttlNanos));
+            }
+            return value;
+        };
+        if (entry == null) {
+            return flights.execute(id, load);
+        }
+        earlyRefreshes.increment();
+        try {
+            return flights.execute(id, load);
+        } catch (RuntimeException e) {
+            log.warn("Early refresh of {} failed, serving the cached value", id, e);
+            return entry.value();
+        }
+    }
+
+    private boolean shouldRefreshEarly(Entry<?> entry) {
+        double gap = entry.loadNanos() * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.nanoTime() + (long) gap >= entry.expiresAt();
+    }
+
+    private static void putStats(Map<String, Number> metrics, String name, Cache<?, ?> cache, SingleFlight<?, ?> flights) {
+        CacheStats stats = cache.stats();
+        metrics.put(name + ".hitRatio", stats.hitRate());
+        metrics.put(name + ".hits", stats.hitCount());
+        metrics.put(name + ".misses", stats.missCount());
+        metrics.put(name + ".evictions", stats.evictionCount());
+        metrics.put(name + ".loadFailures", flights.getFailures());
+        metrics.put(name + ".averageLoadMillis", flights.getAverageLoadMillis());
+        metrics.put(name + ".size", cache.estimatedSize());
+        metrics.put(name + ".weightedBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L));
+        metrics.put(name + ".loads", flights.getLoads());
+        metrics.put(name + ".coalesced", flights.getCoalesced());
+        metrics.put(name + ".timeouts", flights.getTimeouts());
+    }
+
+    static int weigh(ProductDto product) {
+        return OBJECT_OVERHEAD + chars(product.getName()) + chars(product.getDescription()) + chars(product.getImagePath());
+    }
+
+    static int weigh(CategoryDto category) {
+        int weight = OBJECT_OVERHEAD + chars(category.getName()) + chars(category.getImagePath());
+        for (ProductDto product : Optional.ofNullable(category.getProducts()).orElse(List.of())) {
+            weight += weigh(product);
+        }
+        return weight;
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD / 2 + value.length() * 2;
+    }
+
+    private record Entry<V>(V value, long loadNanos, long expiresAt) {
+    }
+}
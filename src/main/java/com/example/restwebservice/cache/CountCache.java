@@ -0,0 +1,105 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.metrics.MetricsSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Row counts behind the optional {@code X-Total-Count} header of paged list endpoints. A count is
+ * queried once, then kept current by the mutators through {@link #add}; changes whose size is not
+ * known (uploads, cascading deletes) drop the count so it is queried again. Counts are approximate
+ * under concurrent writes and across instances, so all of them are dropped periodically.
+ */
+@Component
+public class CountCache implements MetricsSource {
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+    public static final String ORDERS_OF_USERS = "orders.user.";
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    public static String productsInCategory(int categoryId) {
+        return "products.category." + categoryId;
+    }
+
+    public static String ordersOfUser(int userId) {
+        return ORDERS_OF_USERS + userId;
+    }
+
+    /**
+     * Returns the known count or runs {@code countQuery} outside the map, so a slow query does not
+     * block other keys. The result is kept only if no count changed while it ran.
+     */
+    public long get(String key, LongSupplier countQuery) {
+        AtomicLong count = counts.get(key);
+        if (count != null) {
+            hits.increment();
+            return count.get();
+        }
+        long observed = generation.get();
+        queries.increment();
+        long queried = countQuery.getAsLong();
+        if (generation.get() != observed) {
+            return queried;
+        }
+        AtomicLong existing = counts.putIfAbsent(key, new AtomicLong(queried));
+        return existing == null ? queried : existing.get();
+    }
+
+    /**
+     * Adjusts the counts that are already known once the current transaction commits.
+     */
+    public void add(long delta, String... keys) {
+        Invalidation.afterCommit(() -> {
+            generation.incrementAndGet();
+            for (String key : keys) {
+                counts.computeIfPresent(key, (k, count) -> {
+                    count.addAndGet(delta);
+                    return count;
+                });
+            }
+        });
+    }
+
+    public void invalidate(Collection<String> keys) {
+        Invalidation.onCompletion(() -> {
+            generation.incrementAndGet();
+            counts.keySet().removeAll(keys);
+        });
+    }
+
+    public void invalidatePrefix(String prefix) {
+        Invalidation.onCompletion(() -> {
+            generation.incrementAndGet();
+            counts.keySet().removeIf(key -> key.startsWith(prefix));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${count-cache.refresh-interval:PT10M}")
+    public void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    @Override
+    public String metricsName() {
+        return "countCache";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        return Map.of("hits", hits.sum(), "queries", queries.sum(), "size", counts.size());
+    }
+}
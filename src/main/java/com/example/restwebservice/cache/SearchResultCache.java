@@ -0,0 +1,152 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.dto.SearchParamsDto;
+import com.example.restwebservice.metrics.MetricsSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Product ids of search result pages, keyed by the normalized search parameters plus page and sort.
+ * Each entry remembers the categories its category filter selected (or none, meaning every
+ * category), so a product change only drops the pages that could contain that product. A new
+ * category can only change which categories a name filter selects and drops just the pages filtered
+ * by category name; other category changes drop everything. The TTL covers changes made outside
+ * this instance. Pages answered by the database while the search index is being built
+ * are kept apart from index results and dropped once the index is ready.
+ */
+@Component
+public class SearchResultCache implements MetricsSource {
+
+    private final Cache<Key, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong categoryListGeneration = new AtomicLong();
+    private final LongAdder invalidated = new LongAdder();
+
+    public SearchResultCache(@Value("${search.cache.max-entries:10000}") long maxEntries,
+                             @Value("${search.cache.ttl:PT5M}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Trims and case-folds the text filters and clears non-positive price bounds, so equivalent
+     * searches share one cache key. Searching is case-insensitive, so results are unchanged.
+     */
+    public static SearchParamsDto normalize(SearchParamsDto params) {
+        return SearchParamsDto.builder()
+                .searchKey(normalize(params.getSearchKey()))
+                .priceFrom(Math.max(0, params.getPriceFrom()))
+                .priceTo(Math.max(0, params.getPriceTo()))
+                .categoryName(normalize(params.getCategoryName()))
+                .build();
+    }
+
+    /**
+     * Returns the cached ids for a page of {@link #normalize normalized} params or runs {@code search}.
+     * {@code indexed} tells whether {@code search} answers from the search index or the database.
+     * {@code categoryIds} are the categories the filter selects, {@code null} when the search is not
+     * filtered by category or the selection is unknown.
+     */
+    public List<Integer> get(SearchParamsDto params, int pageNumber, int pageSize, String sort, boolean indexed,
+                             Set<Integer> categoryIds, Supplier<List<Integer>> search) {
+        Key key = new Key(params.getSearchKey(), params.getPriceFrom(), params.getPriceTo(), params.getCategoryName(),
+                pageNumber, pageSize, sort, indexed);
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            return entry.ids();
+        }
+        long observed = generation.get();
+        long observedCategoryList = categoryListGeneration.get();
+        List<Integer> ids = List.copyOf(search.get());
+        if (generation.get() == observed && (key.categoryName() == null || categoryListGeneration.get() == observedCategoryList)) {
+            entries.put(key, new Entry(ids, categoryIds == null ? null : Set.copyOf(categoryIds)));
+        }
+        return ids;
+    }
+
+    /**
+     * Drops the pages that filter on any of {@code categoryIds} or do not filter by category.
+     */
+    public void invalidateCategories(Collection<Integer> categoryIds) {
+        Invalidation.onCompletion(() -> {
+            generation.incrementAndGet();
+            entries.asMap().values().removeIf(entry -> {
+                boolean stale = entry.categoryIds() == null || categoryIds.stream().anyMatch(entry.categoryIds()::contains);
+                if (stale) {
+                    invalidated.increment();
+                }
+                return stale;
+            });
+        });
+    }
+
+    /**
+     * Drops the pages filtered by category name, after the list of categories or their names changed.
+     */
+    public void invalidateCategoryNames() {
+        Invalidation.onCompletion(() -> {
+            categoryListGeneration.incrementAndGet();
+            entries.asMap().keySet().removeIf(key -> {
+                boolean stale = key.categoryName() != null;
+                if (stale) {
+                    invalidated.increment();
+                }
+                return stale;
+            });
+        });
+    }
+
+    public void invalidateAll() {
+        Invalidation.onCompletion(() -> {
+            generation.incrementAndGet();
+            invalidated.add(entries.estimatedSize());
+            entries.invalidateAll();
+        });
+    }
+
+    @Override
+    public String metricsName() {
+        return "searchCache";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        CacheStats stats = entries.stats();
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("hitRatio", stats.hitRate());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("invalidated", invalidated.sum());
+        metrics.put("size", entries.estimatedSize());
+        return metrics;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(String searchKey, int priceFrom, int priceTo, String categoryName,
+                       int pageNumber, int pageSize, String sort, boolean indexed) {
+    }
+
+    private record Entry(List<Integer> ids, Set<Integer> categoryIds) {
+    }
+}
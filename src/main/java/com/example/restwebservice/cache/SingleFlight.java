@@ -0,0 +1,111 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.exceptions.LoadTimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader on its own thread
+ * and the others wait on its future. A failure is rethrown to every waiter. A waiter that is not
+ * served within the timeout fails with {@link LoadTimeoutException} (503) and never runs the loader
+ * itself, so a stuck leader delays callers by at most the timeout without adding load to the source
+ * that is already slow. Callers holding a stale value can serve it instead.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final long retryAfterSeconds;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public SingleFlight(Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, (timeout.toMillis() + 999) / 1000);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            return lead(key, flight, loader);
+        }
+        coalesced.increment();
+        try {
+            return leader.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new LoadTimeoutException("Timed out waiting for the load of " + key, retryAfterSeconds);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (CancellationException e) {
+            throw new LoadTimeoutException("Load of " + key + " was cancelled", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public double getAverageLoadMillis() {
+        long count = loads.sum();
+        return count == 0 ? 0.0 : loadNanos.sum() / (count * 1_000_000.0);
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            V value = load(loader);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V load(Supplier<V> loader) {
+        loads.increment();
+        long start = System.nanoTime();
+        try {
+            return loader.get();
+        } catch (RuntimeException | Error e) {
+            failures.increment();
+            throw e;
+        } finally {
+            loadNanos.add(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.datagen.DatasetGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+
+/**
+ * Runs the {@link DatasetGenerator} against the configured database and exits, e.g.
+ * {@code java -jar app.jar --spring.profiles.active=datagen --datagen.products=2000000}.
+ * Generated users log in with {@code datagen.password}.
+ */
+@Configuration
+@Profile("datagen")
+public class DatagenConfig {
+
+    @Bean
+    public DatasetGenerator datasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                                             @Value("${datagen.password:password}") String password,
+                                             @Value("${datagen.seed:42}") long seed,
+                                             @Value("${datagen.categories:1000}") int categories,
+                                             @Value("${datagen.products:100000}") int products,
+                                             @Value("${datagen.users:10000}") int users,
+                                             @Value("${datagen.orders:100000}") int orders,
+                                             @Value("${datagen.lines-per-order:2.5}") double linesPerOrder,
+                                             @Value("${datagen.category-skew:0.8}") double categorySkew,
+                                             @Value("${datagen.product-skew:1.0}") double productSkew,
+                                             @Value("${datagen.user-skew:0.8}") double userSkew,
+                                             @Value("${datagen.orders-from:2022-01-01}") LocalDate ordersFrom,
+                                             @Value("${datagen.orders-to:2023-12-31}") LocalDate ordersTo,
+                                             @Value("${datagen.rows-per-statement:1000}") int rowsPerStatement) {
+        return DatasetGenerator.builder()
+                .jdbcTemplate(jdbcTemplate)
+                .passwordHash(passwordEncoder.encode(password))
+                .seed(seed)
+                .categories(categories)
+                .products(products)
+                .users(users)
+                .orders(orders)
+                .linesPerOrder(linesPerOrder)
+                .categorySkew(categorySkew)
+                .productSkew(productSkew)
+                .userSkew(userSkew)
+                .ordersFrom(ordersFrom)
+                .ordersTo(ordersTo)
+                .rowsPerStatement(rowsPerStatement)
+                .build();
+    }
+
+    @Bean
+    public ApplicationRunner datasetGeneratorRunner(DatasetGenerator datasetGenerator, ConfigurableApplicationContext context) {
+        return args -> {
+            datasetGenerator.generate();
+            System.exit(SpringApplication.exit(context));
+        };
+    }
+}
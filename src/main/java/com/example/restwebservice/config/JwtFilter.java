@@ -1,42 +1,78 @@
 package com.example.restwebservice.config;
 
+import com.example.restwebservice.entities.CustomUserDetails;
 import com.example.restwebservice.services.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.GenericFilter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
 
 import static org.springframework.util.StringUtils.hasText;
 
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends GenericFilter {
 
+    /**
+     * Authority of a metrics scraper, granted only to requests carrying the configured scrape token.
+     */
+    public static final String METRICS_SCRAPE = "METRICS_SCRAPE";
+
     private static final String AUTHORIZATION = "Authorization";
-    private final JwtProvider jwtProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final CustomUserDetailsService customUserDetailsService;
+    private final boolean stateless;
+    private final byte[] scrapeToken;
+
+    public JwtFilter(VerifiedTokenCache verifiedTokenCache, CustomUserDetailsService customUserDetailsService,
+                     @Value("${security.authentication.stateless:true}") boolean stateless,
+                     @Value("${metrics.prometheus.scrape-token:}") String scrapeToken) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.customUserDetailsService = customUserDetailsService;
+        this.stateless = stateless;
+        this.scrapeToken = scrapeToken.getBytes(StandardCharsets.UTF_8);
+    }
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
         String token = getTokenFromRequest((HttpServletRequest) servletRequest);
-        if (token != null && jwtProvider.validateAccessToken(token)) {
-            String userLogin = jwtProvider.getAccessClaims(token).getSubject();
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(userLogin);
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(auth);
+        if (isScrapeToken(token)) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("metrics-scraper",
+                    null, AuthorityUtils.createAuthorityList(METRICS_SCRAPE)));
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        Optional<Claims> claims = token == null ? Optional.empty() : verifiedTokenCache.getAccessClaims(token);
+        if (claims.isPresent()) {
+            UserDetails userDetails = stateless
+                    ? CustomUserDetails.fromClaims(claims.get())
+                    : customUserDetailsService.loadUserByUsername(claims.get().getSubject());
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(auth);
+            }
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private boolean isScrapeToken(String token) {
+        return token != null && scrapeToken.length > 0
+                && MessageDigest.isEqual(scrapeToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
     private String getTokenFromRequest(HttpServletRequest servletRequest) {
         String bearer = servletRequest.getHeader(AUTHORIZATION);
         if (hasText(bearer) && bearer.startsWith("Bearer ")) {
@@ -3,6 +3,7 @@ package com.example.restwebservice.config;
 import com.example.restwebservice.dto.UserDto;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -15,17 +16,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtProvider {
+    public static final Duration REFRESH_TOKEN_TTL = Duration.ofDays(30);
+
     private final SecretKey jwtAccessSecret;
     private final SecretKey jwtRefreshSecret;
+    private final JwtParser accessParser;
+    private final JwtParser refreshParser;
 
     public JwtProvider(
             @Value("${jwt.secret.access}") String jwtAccessSecret,
@@ -33,6 +39,8 @@ public class JwtProvider {
     ) {
         this.jwtAccessSecret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtAccessSecret));
         this.jwtRefreshSecret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret));
+        this.accessParser = Jwts.parserBuilder().setSigningKey(this.jwtAccessSecret).build();
+        this.refreshParser = Jwts.parserBuilder().setSigningKey(this.jwtRefreshSecret).build();
     }
 
     public String generateAccessToken(@NonNull UserDto user) {
@@ -47,7 +55,7 @@ public class JwtProvider {
     }
 
     public String generateRefreshToken(@NonNull UserDto user) {
-        final Instant refreshExpirationInstant = LocalDateTime.now().plusDays(30).atZone(ZoneId.systemDefault()).toInstant();
+        final Instant refreshExpirationInstant = Instant.now().plus(REFRESH_TOKEN_TTL);
         final Date refreshExpiration = Date.from(refreshExpirationInstant);
         return Jwts.builder()
                 .setSubject(user.getEmail())
@@ -57,20 +65,24 @@ public class JwtProvider {
     }
 
     public boolean validateAccessToken(@NonNull String accessToken) {
-        return validateToken(accessToken, jwtAccessSecret);
+        return parseToken(accessToken, accessParser).isPresent();
     }
 
     public boolean validateRefreshToken(@NonNull String refreshToken) {
-        return validateToken(refreshToken, jwtRefreshSecret);
+        return parseToken(refreshToken, refreshParser).isPresent();
+    }
+
+    public Optional<Claims> parseAccessToken(@NonNull String accessToken) {
+        return parseToken(accessToken, accessParser);
     }
 
-    private boolean validateToken(@NonNull String token, @NonNull Key secret) {
+    public Optional<Claims> parseRefreshToken(@NonNull String refreshToken) {
+        return parseToken(refreshToken, refreshParser);
+    }
+
+    private Optional<Claims> parseToken(@NonNull String token, @NonNull JwtParser parser) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         } catch (ExpiredJwtException expEx) {
             log.info("Token expired", expEx);
         } catch (UnsupportedJwtException unsEx) {
@@ -82,22 +94,14 @@ public class JwtProvider {
         } catch (Exception e) {
             log.info("invalid token", e);
         }
-        return false;
+        return Optional.empty();
     }
 
     public Claims getAccessClaims(@NonNull String token) {
-        return getClaims(token, jwtAccessSecret);
+        return accessParser.parseClaimsJws(token).getBody();
     }
 
     public Claims getRefreshClaims(@NonNull String token) {
-        return getClaims(token, jwtRefreshSecret);
-    }
-
-    private Claims getClaims(@NonNull String token, @NonNull Key secret) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return refreshParser.parseClaimsJws(token).getBody();
     }
 }
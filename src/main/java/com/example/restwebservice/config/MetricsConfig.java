@@ -0,0 +1,37 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.LatencyInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String INSTRUMENTED = "@within(org.springframework.web.bind.annotation.RestController)"
+            + " || within(com.example.restwebservice.services.impl.ProductServiceImpl)"
+            + " || within(com.example.restwebservice.services.impl.CategoryServiceImpl)"
+            + " || within(com.example.restwebservice.services.impl.UserServiceImpl)"
+            + " || within(com.example.restwebservice.services.OrderService)"
+            + " || within(com.example.restwebservice.services.CartService)";
+
+    @Bean
+    public LatencyInterceptor latencyInterceptor() {
+        return new LatencyInterceptor();
+    }
+
+    /**
+     * Runs outermost, so the recorded latency includes security checks and transaction commit.
+     */
+    @Bean
+    public Advisor latencyAdvisor(LatencyInterceptor latencyInterceptor) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(INSTRUMENTED);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, latencyInterceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
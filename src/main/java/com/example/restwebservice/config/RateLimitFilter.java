@@ -0,0 +1,59 @@
+package com.example.restwebservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.GenericFilter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs after {@link JwtFilter}: authenticated clients are limited by token subject,
+ * anonymous ones by remote address, with separate buckets per endpoint group.
+ */
+@Component
+public class RateLimitFilter extends GenericFilter {
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+
+    public RateLimitFilter(RateLimiter rateLimiter, @Value("${rate-limit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        if (enabled) {
+            HttpServletRequest request = (HttpServletRequest) servletRequest;
+            RateLimitGroup group = rateLimiter.resolve(request.getRequestURI().substring(request.getContextPath().length()));
+            long wait = group.tryAcquire(client(request), System.nanoTime());
+            if (wait > 0) {
+                HttpServletResponse response = (HttpServletResponse) servletResponse;
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L))));
+                return;
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.restwebservice.config;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets of one endpoint group, one per client. Each bucket is a single
+ * {@link AtomicLong} holding the theoretical arrival time of the next request (GCRA),
+ * which is equivalent to a token bucket of {@code burst} tokens refilled at
+ * {@code requestsPerSecond} and is updated with one CAS and no lock.
+ */
+public class RateLimitGroup {
+
+    @Getter
+    private final String name;
+    private final List<String> pathPrefixes;
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitGroup(String name, double requestsPerSecond, int burst, List<String> pathPrefixes) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(String.format("Invalid rate limit for group %s", name));
+        }
+        this.name = name;
+        this.pathPrefixes = pathPrefixes;
+        this.emissionIntervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    public boolean matches(String path) {
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 0 when the request is allowed, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(client, c -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long tat = bucket.get();
+            long start = tat - nowNanos > 0 ? tat : nowNanos;
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + emissionIntervalNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely; a dropped client starts again with a full bucket.
+     */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
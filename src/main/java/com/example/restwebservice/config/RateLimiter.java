@@ -0,0 +1,59 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class RateLimiter implements MetricsSource {
+
+    private final List<RateLimitGroup> groups;
+
+    public RateLimiter(@Value("${rate-limit.login.requests-per-second:0.2}") double loginRate,
+                       @Value("${rate-limit.login.burst:5}") int loginBurst,
+                       @Value("${rate-limit.search.requests-per-second:20}") double searchRate,
+                       @Value("${rate-limit.search.burst:40}") int searchBurst,
+                       @Value("${rate-limit.default.requests-per-second:100}") double defaultRate,
+                       @Value("${rate-limit.default.burst:200}") int defaultBurst) {
+        this.groups = List.of(
+                new RateLimitGroup("login", loginRate, loginBurst, List.of("/users/login", "/users/token", "/users/refresh")),
+                new RateLimitGroup("search", searchRate, searchBurst, List.of("/products/search")),
+                new RateLimitGroup("default", defaultRate, defaultBurst, List.of("/")));
+    }
+
+    public RateLimitGroup resolve(String path) {
+        for (RateLimitGroup group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return groups.get(groups.size() - 1);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        groups.forEach(group -> group.evictIdle(now));
+    }
+
+    @Override
+    public String metricsName() {
+        return "rateLimiter";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        for (RateLimitGroup group : groups) {
+            metrics.put(group.getName() + ".buckets", group.size());
+            metrics.put(group.getName() + ".allowed", group.getAllowed());
+            metrics.put(group.getName() + ".rejected", group.getRejected());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.SqlCounters;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.GenericFilter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Attributes the statements, rows and JDBC time of a request, including authentication, and warns
+ * when a request passes {@code sql.request.max-statements} or {@code sql.request.max-time}. With
+ * {@code sql.request.debug-headers} the numbers are returned as {@code X-Sql-*} headers; the
+ * response body is then buffered so the headers can follow it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class SqlStatsFilter extends GenericFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final long maxStatements;
+    private final long maxNanos;
+    private final boolean debugHeaders;
+
+    public SqlStatsFilter(@Value("${sql.request.max-statements:50}") long maxStatements,
+                          @Value("${sql.request.max-time:PT0.5S}") Duration maxTime,
+                          @Value("${sql.request.debug-headers:false}") boolean debugHeaders) {
+        this.maxStatements = maxStatements;
+        this.maxNanos = maxTime.toNanos();
+        this.debugHeaders = debugHeaders;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        SqlCounters counters = SqlCounters.current();
+        long statements = counters.getStatements();
+        long rows = counters.getRows();
+        long nanos = counters.getNanos();
+        ContentCachingResponseWrapper buffered = debugHeaders
+                ? new ContentCachingResponseWrapper((HttpServletResponse) servletResponse)
+                : null;
+        try {
+            filterChain.doFilter(servletRequest, buffered == null ? servletResponse : buffered);
+        } finally {
+            statements = counters.getStatements() - statements;
+            rows = counters.getRows() - rows;
+            nanos = counters.getNanos() - nanos;
+            if (statements > maxStatements || nanos > maxNanos) {
+                HttpServletRequest request = (HttpServletRequest) servletRequest;
+                log.warn("{} {} issued {} statements, fetched {} rows, spent {} ms in JDBC",
+                        request.getMethod(), request.getRequestURI(), statements, rows, nanos / 1_000_000);
+            }
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(statements));
+                buffered.setHeader(ROWS_HEADER, String.valueOf(rows));
+                buffered.setHeader(TIME_HEADER, String.valueOf(nanos / 1_000_000.0));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+}
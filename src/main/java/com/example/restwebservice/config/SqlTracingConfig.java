@@ -0,0 +1,29 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.SlowQueryLog;
+import com.example.restwebservice.metrics.TracingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.tracing.enabled", matchIfMissing = true)
+public class SqlTracingConfig {
+
+    /**
+     * Static, so the post processor is registered before the DataSource is created.
+     */
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? TracingDataSource.wrap(dataSource, slowQueryLog.getObject()) : bean;
+            }
+        };
+    }
+}
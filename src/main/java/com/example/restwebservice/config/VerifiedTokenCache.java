@@ -0,0 +1,96 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.MetricsSource;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Claims of access tokens whose signature was already verified, keyed by the SHA-256 digest
+ * of the token so raw tokens are not kept in memory. An entry lives until the token's own
+ * expiration; only successfully verified tokens are cached.
+ */
+@Component
+public class VerifiedTokenCache implements MetricsSource {
+
+    private final JwtProvider jwtProvider;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(JwtProvider jwtProvider, @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.jwtProvider = jwtProvider;
+        this.maxSize = maxSize;
+    }
+
+    public Optional<Claims> getAccessClaims(String token) {
+        String key = TokenDigest.sha256(token);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(entry.claims());
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        Optional<Claims> claims = jwtProvider.parseAccessToken(token);
+        claims.filter(c -> c.getExpiration() != null).ifPresent(c -> put(key, new Entry(c, c.getExpiration().getTime())));
+        return claims;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String metricsName() {
+        return "verifiedTokenCache";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        return Map.of("hits", getHits(), "misses", getMisses(), "size", size());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void put(String key, Entry entry) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, entry);
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
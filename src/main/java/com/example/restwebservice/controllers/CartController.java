@@ -2,6 +2,7 @@ package com.example.restwebservice.controllers;
 
 import com.example.restwebservice.dto.CartDto;
 import com.example.restwebservice.services.CartService;
+import com.example.restwebservice.services.CartStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,18 +10,27 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/cart")
 @AllArgsConstructor
@@ -30,6 +40,23 @@ public class CartController {
 
     private final CartService cartService;
 
+    @Operation(
+            summary = "Get cart",
+            description = "Get cart of the current user",
+            tags = {"cart"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cart was found",
+                    content = @Content(schema = @Schema(implementation = CartDto.class))
+            )
+    })
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping
+    public ResponseEntity<CartDto> getCart(Principal principal) {
+        return new ResponseEntity<>(cartService.getCart(principal.getName()), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Add product",
             description = "Add product to cart",
@@ -46,32 +73,54 @@ public class CartController {
                     content = @Content(schema = @Schema(implementation = String.class))
             )
     })
-
+    @PreAuthorize("hasAuthority('USER')")
     @PostMapping("/addProduct/{id}")
-    public ResponseEntity<CartDto> addProduct(@Parameter(description = "Product id") @PathVariable @Positive int id, @RequestBody CartDto cartDto) {
-        return new ResponseEntity<>(cartService.addProduct(id, cartDto), HttpStatus.OK);
+    public ResponseEntity<CartDto> addProduct(@Parameter(description = "Product id") @PathVariable @Positive int id,
+                                              @Parameter(description = "Quantity") @RequestParam(defaultValue = "1") @Positive @Max(CartStore.MAX_QUANTITY) int quantity,
+                                              Principal principal) {
+        return new ResponseEntity<>(cartService.addProduct(principal.getName(), id, quantity), HttpStatus.OK);
     }
 
     @Operation(
-            summary = "Remove product",
-            description = "Remove product from cart",
+            summary = "Add products",
+            description = "Add several products to cart in one request, quantities keyed by product id",
             tags = {"cart"})
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    description = "Product was removed",
+                    description = "Products were added",
                     content = @Content(schema = @Schema(contentSchema = CartDto.class))
             ),
             @ApiResponse(
                     responseCode = "404",
-                    description = "Product not found",
+                    description = "Some products not found, nothing was added",
                     content = @Content(schema = @Schema(implementation = String.class))
             )
     })
+    @PreAuthorize("hasAuthority('USER')")
+    @PostMapping("/addProducts")
+    public ResponseEntity<CartDto> addProducts(@RequestBody @NotEmpty @Size(max = 100) Map<@Positive Integer, @Positive @Max(CartStore.MAX_QUANTITY) Integer> quantities,
+                                               Principal principal) {
+        return new ResponseEntity<>(cartService.addProducts(principal.getName(), quantities), HttpStatus.OK);
+    }
 
+    @Operation(
+            summary = "Remove product",
+            description = "Remove product from cart",
+            tags = {"cart"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Product was removed",
+                    content = @Content(schema = @Schema(contentSchema = CartDto.class))
+            )
+    })
+    @PreAuthorize("hasAuthority('USER')")
     @DeleteMapping("/removeProduct/{id}")
-    public ResponseEntity<CartDto> removeProduct(@Parameter(description = "Product id") @PathVariable @Positive int id, @RequestBody CartDto cartDto) {
-        return new ResponseEntity<>(cartService.removeProduct(id, cartDto), HttpStatus.OK);
+    public ResponseEntity<CartDto> removeProduct(@Parameter(description = "Product id") @PathVariable @Positive int id,
+                                                 @Parameter(description = "Quantity") @RequestParam(defaultValue = "1") @Positive @Max(CartStore.MAX_QUANTITY) int quantity,
+                                                 Principal principal) {
+        return new ResponseEntity<>(cartService.removeProduct(principal.getName(), id, quantity), HttpStatus.OK);
     }
 
     @Operation(
@@ -84,9 +133,9 @@ public class CartController {
                     content = @Content(schema = @Schema(implementation = CartDto.class))
             )
     })
-
+    @PreAuthorize("hasAuthority('USER')")
     @DeleteMapping("/clear")
-    public ResponseEntity<CartDto> clear(@RequestBody CartDto cartDto) {
-        return new ResponseEntity<>(cartService.clear(cartDto), HttpStatus.OK);
+    public ResponseEntity<CartDto> clear(Principal principal) {
+        return new ResponseEntity<>(cartService.clear(principal.getName()), HttpStatus.OK);
     }
 }
@@ -1,6 +1,10 @@
 package com.example.restwebservice.controllers;
 
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.services.CategoryService;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
 import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
@@ -15,7 +19,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -63,8 +69,36 @@ public class CategoryController {
     @GetMapping("/all")
     public ResponseEntity<List<CategoryDto>> getAllCategories(@Parameter(required = true, description = "Page number") @RequestParam int pageNumber,
                                                               @Parameter(required = true, description = "Item number per page") @RequestParam int pageSize,
-                                                              @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
-        return new ResponseEntity<>(categoryService.getAllCategories(pageNumber, pageSize, param), HttpStatus.OK);
+                                                              @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param,
+                                                              @Parameter(description = "Add the total number of items as the X-Total-Count header") @RequestParam(defaultValue = "false") boolean withTotal) {
+        HttpHeaders headers = new HttpHeaders();
+        if (withTotal) {
+            headers.set(CountCache.TOTAL_COUNT_HEADER, String.valueOf(categoryService.countCategories()));
+        }
+        return new ResponseEntity<>(categoryService.getAllCategories(pageNumber, pageSize, param), headers, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Find all categories by cursor",
+            description = "Find all existed categories in shop with keyset pagination",
+            tags = {"category"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Categories were found, next page is requested with the returned after token",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Categories not found - invalid cursor"
+            )
+    })
+
+    @GetMapping(value = "/all", params = "after")
+    public ResponseEntity<CursorPageDto<CategoryDto>> getAllCategoriesAfter(@Parameter(required = true, description = "Token of the last seen item, empty for the first page") @RequestParam String after,
+                                                                            @Parameter(required = true, description = "Item number per page") @RequestParam @Positive int pageSize,
+                                                                            @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
+        return new ResponseEntity<>(categoryService.getAllCategoriesAfter(after, pageSize, param), HttpStatus.OK);
     }
 
     @Operation(
@@ -91,6 +125,28 @@ public class CategoryController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @Operation(
+            summary = "Find categories by ids",
+            description = "Find several categories in one request, in the order of the requested ids",
+            tags = {"category"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found categories and the ids that matched nothing",
+                    content = @Content(schema = @Schema(implementation = BulkResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many or invalid ids",
+                    content = @Content(schema = @Schema(implementation = String.class))
+            )
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BulkResultDto<CategoryDto>> getCategoriesByIds(@Parameter(required = true, description = "Category ids, at most 100")
+                                                                  @RequestParam @Size(max = 100) List<@Positive Integer> ids) {
+        return new ResponseEntity<>(categoryService.getCategoriesByIds(ids), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Create category",
             description = "Create new category",
@@ -173,6 +229,23 @@ public class CategoryController {
         categoryService.downloadCategoriesToFile(categories, response);
     }
 
+    @Operation(
+            summary = "Export categories to file",
+            description = "Stream all categories with their products from the database to .csv file")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Categories were exported"
+            )
+    })
+
+    @GetMapping("/export")
+    public void exportCategories(@Parameter(description = "Compress file with gzip") @RequestParam(defaultValue = "false") boolean gzip,
+                                 HttpServletResponse response)
+            throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException {
+        categoryService.exportCategories(gzip, response);
+    }
+
     @Operation(
             summary = "Upload categories from file",
             description = "Upload categories from .csv file")
@@ -180,13 +253,13 @@ public class CategoryController {
             @ApiResponse(
                     responseCode = "200",
                     description = "Categories were upload",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = CategoryDto.class)))
+                    content = @Content(schema = @Schema(implementation = ImportResultDto.class))
             )
     })
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PostMapping("/upload")
-    public ResponseEntity<List<CategoryDto>> uploadCategoriesFromFile(@Parameter(description = "File for upload ") @RequestParam("file") MultipartFile file) throws Exception {
+    public ResponseEntity<ImportResultDto> uploadCategoriesFromFile(@Parameter(description = "File for upload ") @RequestParam("file") MultipartFile file) throws Exception {
         return new ResponseEntity<>(categoryService.uploadCategoriesFromFile(file), HttpStatus.CREATED);
     }
 }
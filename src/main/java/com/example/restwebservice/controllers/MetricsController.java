@@ -0,0 +1,98 @@
+package com.example.restwebservice.controllers;
+
+import com.example.restwebservice.dto.SqlQueryStatsDto;
+import com.example.restwebservice.metrics.LatencyInterceptor;
+import com.example.restwebservice.metrics.MetricsSource;
+import com.example.restwebservice.metrics.PrometheusText;
+import com.example.restwebservice.metrics.SlowQueryLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/metrics")
+@AllArgsConstructor
+@Validated
+@Tag(name = "metrics", description = "Metrics Endpoints")
+public class MetricsController {
+    private final List<MetricsSource> metricsSources;
+    private final LatencyInterceptor latencyInterceptor;
+    private final SlowQueryLog slowQueryLog;
+
+    @Operation(
+            summary = "Get metrics",
+            description = "Get counters and gauges of the service components",
+            tags = {"metrics"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Metrics were collected"
+            )
+    })
+
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Number>>> getMetrics() {
+        Map<String, Map<String, Number>> metrics = new TreeMap<>();
+        metricsSources.forEach(source -> metrics.put(source.metricsName(), source.metrics()));
+        return new ResponseEntity<>(metrics, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get metrics for Prometheus",
+            description = "Get method latencies, error counts and in-flight calls plus the component metrics in Prometheus text format. "
+                    + "Scrapers authenticate with the bearer token of metrics.prometheus.scrape-token instead of a user JWT",
+            tags = {"metrics"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Metrics were collected"
+            )
+    })
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'METRICS_SCRAPE')")
+    @GetMapping(value = "/prometheus", produces = PrometheusText.CONTENT_TYPE)
+    public ResponseEntity<String> getPrometheusMetrics() {
+        return new ResponseEntity<>(PrometheusText.render(latencyInterceptor.getMetrics(), metricsSources), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get heaviest SQL queries",
+            description = "Get parameter-free SQL fingerprints with executions, rows and JDBC time, heaviest first",
+            tags = {"metrics"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Queries were collected",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = SqlQueryStatsDto.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unsupported order"
+            )
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping("/sql")
+    public ResponseEntity<List<SqlQueryStatsDto>> getTopQueries(@Parameter(description = "Number of queries") @RequestParam(defaultValue = "20") @Positive int limit,
+                                                                @Parameter(description = "Order: total, mean, max, executions or rows") @RequestParam(defaultValue = "total") String orderBy) {
+        return new ResponseEntity<>(slowQueryLog.top(limit, orderBy), HttpStatus.OK);
+    }
+}
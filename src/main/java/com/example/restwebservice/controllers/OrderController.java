@@ -1,9 +1,10 @@
 package com.example.restwebservice.controllers;
 
-import com.example.restwebservice.dto.CartDto;
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.dto.OrderDto;
 import com.example.restwebservice.dto.ProductDto;
-import com.example.restwebservice.dto.UserDto;
 import com.example.restwebservice.exceptions.CartIsEmptyException;
 import com.example.restwebservice.services.OrderService;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
@@ -20,6 +21,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -36,6 +39,8 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,7 +55,7 @@ public class OrderController {
 
     @Operation(
             summary = "Create order",
-            description = "Create new order",
+            description = "Create new order from the cart of the current user",
             tags = {"order"})
     @ApiResponses(value = {
             @ApiResponse(
@@ -66,8 +71,8 @@ public class OrderController {
     })
     @PreAuthorize("hasAuthority('USER')")
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody CartDto cartDto, @RequestBody @Valid UserDto userDto) throws CartIsEmptyException {
-        return new ResponseEntity<>(orderService.create(userDto, cartDto), HttpStatus.CREATED);
+    public ResponseEntity<OrderDto> createOrder(Principal principal) throws CartIsEmptyException {
+        return new ResponseEntity<>(orderService.create(principal.getName()), HttpStatus.CREATED);
     }
 
     @Operation(
@@ -161,10 +166,38 @@ public class OrderController {
     public ResponseEntity<List<OrderDto>> getOrdersByUserId(@Parameter(description = "User id") @PathVariable @Positive int id,
                                                             @Parameter(required = true, description = "Page number") @RequestParam int pageNumber,
                                                             @Parameter(required = true, description = "Item number per page") @RequestParam int pageSize,
-                                                            @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
-        return Optional.ofNullable(orderService.getOrdersByUserId(id, pageNumber, pageSize, param))
-                .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                                                            @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param,
+                                                            @Parameter(description = "Add the total number of items as the X-Total-Count header") @RequestParam(defaultValue = "false") boolean withTotal) {
+        List<OrderDto> orders = orderService.getOrdersByUserId(id, pageNumber, pageSize, param);
+        HttpHeaders headers = new HttpHeaders();
+        if (withTotal) {
+            headers.set(CountCache.TOTAL_COUNT_HEADER, String.valueOf(orderService.countOrdersByUserId(id)));
+        }
+        return new ResponseEntity<>(orders, headers, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Find orders by user by cursor",
+            description = "Find certain existed orders in shop by user id with keyset pagination",
+            tags = {"order"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Orders were found, next page is requested with the returned after token",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Orders not found - invalid cursor"
+            )
+    })
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping(value = "/user/{id}", params = "after")
+    public ResponseEntity<CursorPageDto<OrderDto>> getOrdersByUserIdAfter(@Parameter(description = "User id") @PathVariable @Positive int id,
+                                                                          @Parameter(required = true, description = "Token of the last seen item, empty for the first page") @RequestParam String after,
+                                                                          @Parameter(required = true, description = "Item number per page") @RequestParam @Positive int pageSize,
+                                                                          @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
+        return new ResponseEntity<>(orderService.getOrdersByUserIdAfter(id, after, pageSize, param), HttpStatus.OK);
     }
 
     @Operation(
@@ -208,6 +241,32 @@ public class OrderController {
         orderService.downloadOrdersToFile(orders, response);
     }
 
+    @Operation(
+            summary = "Export orders to file",
+            description = "Stream the orders of a user, optionally within a date range, from the database to .csv file")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Orders were exported"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found"
+            )
+    })
+    @PreAuthorize("hasAuthority('USER')")
+    @GetMapping("/export")
+    public void exportOrders(@Parameter(description = "User id") @RequestParam @Positive int userId,
+                             @Parameter(description = "First order date, inclusive") @RequestParam(required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @Parameter(description = "Last order date, inclusive") @RequestParam(required = false)
+                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @Parameter(description = "Compress file with gzip") @RequestParam(defaultValue = "false") boolean gzip,
+                             HttpServletResponse response)
+            throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException {
+        orderService.exportOrders(userId, from, to, gzip, response);
+    }
+
     @Operation(
             summary = "Upload orders from file",
             description = "Upload orders from .csv file")
@@ -215,13 +274,13 @@ public class OrderController {
             @ApiResponse(
                     responseCode = "200",
                     description = "Orders were upload",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrderDto.class)))
+                    content = @Content(schema = @Schema(implementation = ImportResultDto.class))
             )
     })
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PostMapping("/upload")
-    public ResponseEntity<List<OrderDto>> uploadOrdersFromFile(@Parameter(description = "File for upload ")
+    public ResponseEntity<ImportResultDto> uploadOrdersFromFile(@Parameter(description = "File for upload ")
                                                                @RequestParam("file") MultipartFile file) throws Exception {
         return new ResponseEntity<>(orderService.uploadOrdersFromFile(file), HttpStatus.CREATED);
     }
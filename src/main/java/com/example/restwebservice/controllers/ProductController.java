@@ -1,5 +1,9 @@
 package com.example.restwebservice.controllers;
 
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.dto.BulkResultDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.dto.ProductDto;
 import com.example.restwebservice.dto.SearchParamsDto;
 import com.example.restwebservice.services.ProductService;
@@ -16,7 +20,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -63,8 +69,36 @@ public class ProductController {
     @GetMapping("/all")
     public ResponseEntity<List<ProductDto>> getAllProducts(@Parameter(required = true, description = "Page number") @RequestParam int pageNumber,
                                                            @Parameter(required = true, description = "Item number per page") @RequestParam int pageSize,
-                                                           @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
-        return new ResponseEntity<>(productService.getAllProducts(pageNumber, pageSize, param), HttpStatus.OK);
+                                                           @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param,
+                                                           @Parameter(description = "Add the total number of items as the X-Total-Count header") @RequestParam(defaultValue = "false") boolean withTotal) {
+        HttpHeaders headers = new HttpHeaders();
+        if (withTotal) {
+            headers.set(CountCache.TOTAL_COUNT_HEADER, String.valueOf(productService.countProducts()));
+        }
+        return new ResponseEntity<>(productService.getAllProducts(pageNumber, pageSize, param), headers, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Find all products by cursor",
+            description = "Find all existed products in shop with keyset pagination",
+            tags = {"product"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products were found, next page is requested with the returned after token",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Products not found - invalid cursor"
+            )
+    })
+
+    @GetMapping(value = "/all", params = "after")
+    public ResponseEntity<CursorPageDto<ProductDto>> getAllProductsAfter(@Parameter(required = true, description = "Token of the last seen item, empty for the first page") @RequestParam String after,
+                                                                         @Parameter(required = true, description = "Item number per page") @RequestParam @Positive int pageSize,
+                                                                         @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "id") String param) {
+        return new ResponseEntity<>(productService.getAllProductsAfter(after, pageSize, param), HttpStatus.OK);
     }
 
     @Operation(
@@ -157,6 +191,28 @@ public class ProductController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @Operation(
+            summary = "Find products by ids",
+            description = "Find several products in one request, in the order of the requested ids",
+            tags = {"product"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found products and the ids that matched nothing",
+                    content = @Content(schema = @Schema(implementation = BulkResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many or invalid ids",
+                    content = @Content(schema = @Schema(implementation = String.class))
+            )
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BulkResultDto<ProductDto>> getProductsByIds(@Parameter(required = true, description = "Product ids, at most 100")
+                                                                  @RequestParam @Size(max = 100) List<@Positive Integer> ids) {
+        return new ResponseEntity<>(productService.getProductsByIds(ids), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Find products by category",
             description = "Find certain existed products in shop by category id",
@@ -178,10 +234,14 @@ public class ProductController {
     public ResponseEntity<List<ProductDto>> getProductByCategoryId(@Parameter(required = true, description = "Page number") @RequestParam int pageNumber,
                                                                    @Parameter(required = true, description = "Item number per page") @RequestParam int pageSize,
                                                                    @Parameter(required = true, description = "Category id")
-                                                                   @PathVariable @Positive int id) {
-        return Optional.ofNullable(productService.getProductByCategoryId(id, pageNumber, pageSize))
-                .map(dto -> new ResponseEntity<>(dto, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                                                                   @PathVariable @Positive int id,
+                                                                   @Parameter(description = "Add the total number of items as the X-Total-Count header") @RequestParam(defaultValue = "false") boolean withTotal) {
+        List<ProductDto> products = productService.getProductByCategoryId(id, pageNumber, pageSize);
+        HttpHeaders headers = new HttpHeaders();
+        if (withTotal) {
+            headers.set(CountCache.TOTAL_COUNT_HEADER, String.valueOf(productService.countProductsByCategoryId(id)));
+        }
+        return new ResponseEntity<>(products, headers, HttpStatus.OK);
     }
 
     @Operation(
@@ -215,6 +275,30 @@ public class ProductController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @Operation(
+            summary = "Search products by cursor",
+            description = "Search existed products in shop by string, category and price with keyset pagination",
+            tags = {"product"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products were found, next page is requested with the returned after token",
+                    content = @Content(schema = @Schema(implementation = CursorPageDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Products not found - invalid cursor"
+            )
+    })
+
+    @PostMapping(value = "/search", params = "after")
+    public ResponseEntity<CursorPageDto<ProductDto>> searchProductAfter(@RequestBody SearchParamsDto searchParamsDto,
+                                                                        @Parameter(required = true, description = "Token of the last seen item, empty for the first page") @RequestParam String after,
+                                                                        @Parameter(required = true, description = "Item number per page") @RequestParam @Positive int pageSize,
+                                                                        @Parameter(required = true, description = "Search param") @RequestParam(defaultValue = "name") String param) {
+        return new ResponseEntity<>(productService.searchProductsAfter(searchParamsDto, after, pageSize, param), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Save products to file",
             description = "Save products to .csv file")
@@ -231,6 +315,28 @@ public class ProductController {
         productService.downloadProductsToFile(products, response);
     }
 
+    @Operation(
+            summary = "Export products to file",
+            description = "Stream all products, or the products of one category, from the database to .csv file")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products were exported"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Category not found"
+            )
+    })
+
+    @GetMapping("/export")
+    public void exportProducts(@Parameter(description = "Category id") @RequestParam(required = false) @Positive Integer categoryId,
+                               @Parameter(description = "Compress file with gzip") @RequestParam(defaultValue = "false") boolean gzip,
+                               HttpServletResponse response)
+            throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException {
+        productService.exportProducts(categoryId, gzip, response);
+    }
+
     @Operation(
             summary = "Upload products from file",
             description = "Upload products from .csv file")
@@ -238,13 +344,13 @@ public class ProductController {
             @ApiResponse(
                     responseCode = "200",
                     description = "products were upload",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductDto.class)))
+                    content = @Content(schema = @Schema(implementation = ImportResultDto.class))
             )
     })
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PostMapping("/upload")
-    public ResponseEntity<List<ProductDto>> uploadProductsFromFile(@Parameter(description = "File for upload ")
+    public ResponseEntity<ImportResultDto> uploadProductsFromFile(@Parameter(description = "File for upload ")
                                                                    @RequestParam("file") MultipartFile file) throws Exception {
         return new ResponseEntity<>(productService.uploadProductsFromFile(file), HttpStatus.CREATED);
     }
@@ -1,10 +1,12 @@
 package com.example.restwebservice.controllers;
 
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.JwtRequest;
 import com.example.restwebservice.dto.JwtResponse;
 import com.example.restwebservice.dto.RefreshJwtRequest;
 import com.example.restwebservice.dto.UserDto;
 import com.example.restwebservice.exceptions.AuthorizationException;
+import com.example.restwebservice.exceptions.ServiceUnavailableException;
 import com.example.restwebservice.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +18,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +31,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -43,7 +47,7 @@ public class UserController {
 
     @Operation(
             summary = "Find all users",
-            description = "Find all registered users in shop",
+            description = "Find a page of registered users in shop",
             tags = {"user"})
     @ApiResponses(value = {
             @ApiResponse(
@@ -59,8 +63,9 @@ public class UserController {
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @GetMapping("/all")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return new ResponseEntity<>(userService.getAllUsers(), HttpStatus.OK);
+    public ResponseEntity<List<UserDto>> getAllUsers(@Parameter(required = true, description = "Page number") @RequestParam int pageNumber,
+                                                     @Parameter(required = true, description = "Item number per page") @RequestParam @Positive int pageSize) {
+        return new ResponseEntity<>(userService.getAllUsers(pageNumber, pageSize), HttpStatus.OK);
     }
 
     @Operation(
@@ -88,6 +93,29 @@ public class UserController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @Operation(
+            summary = "Find users by ids",
+            description = "Find several users in one request, in the order of the requested ids",
+            tags = {"user"})
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found users and the ids that matched nothing",
+                    content = @Content(schema = @Schema(implementation = BulkResultDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Too many or invalid ids",
+                    content = @Content(schema = @Schema(implementation = String.class))
+            )
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @GetMapping(params = "ids")
+    public ResponseEntity<BulkResultDto<UserDto>> getUsersByIds(@Parameter(required = true, description = "User ids, at most 100")
+                                                                  @RequestParam @Size(max = 100) List<@Positive Integer> ids) {
+        return new ResponseEntity<>(userService.getUsersByIds(ids), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Create user",
             description = "Create new user",
@@ -127,7 +155,7 @@ public class UserController {
     })
 
     @PostMapping("/login")
-    public JwtResponse login(@RequestBody @Valid JwtRequest request) throws AuthorizationException {
+    public JwtResponse login(@RequestBody @Valid JwtRequest request) throws AuthorizationException, ServiceUnavailableException {
         return userService.login(request);
     }
 
@@ -0,0 +1,76 @@
+package com.example.restwebservice.csv;
+
+import com.opencsv.CSVWriter;
+import com.opencsv.bean.StatefulBeanToCsv;
+import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import com.opencsv.exceptions.CsvDataTypeMismatchException;
+import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rows to the response as they are read, so an export never holds more than
+ * one row (or one group of join rows) in memory.
+ */
+@Component
+public class CsvExporter {
+
+    public <T> void export(Iterator<T> rows, String fileName, boolean gzip, HttpServletResponse response)
+            throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException {
+        response.setContentType(gzip ? "application/gzip" : "text/csv");
+        response.setHeader("Content-Disposition", "attachment; filename=" + fileName + (gzip ? ".csv.gz" : ".csv"));
+        OutputStream outputStream = gzip ? new GZIPOutputStream(response.getOutputStream()) : response.getOutputStream();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            StatefulBeanToCsv<T> beanToCsv = new StatefulBeanToCsvBuilder<T>(writer)
+                    .withQuotechar(CSVWriter.NO_QUOTE_CHARACTER)
+                    .withSeparator(',')
+                    .build();
+            beanToCsv.write(rows);
+        }
+    }
+
+    /**
+     * Folds consecutive rows sharing a key, e.g. the rows of a join ordered by the parent id,
+     * into one element per key.
+     */
+    public static <R, D> Iterator<D> groupConsecutive(Stream<R> rows, Function<R, ?> key, Function<List<R>, D> mapper) {
+        Iterator<R> iterator = rows.iterator();
+        return new Iterator<>() {
+            private R pending = iterator.hasNext() ? iterator.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public D next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                List<R> group = new ArrayList<>();
+                Object groupKey = key.apply(pending);
+                do {
+                    group.add(pending);
+                    pending = iterator.hasNext() ? iterator.next() : null;
+                } while (pending != null && Objects.equals(groupKey, key.apply(pending)));
+                return mapper.apply(group);
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.restwebservice.csv;
+
+import com.example.restwebservice.dto.ImportResultDto;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams a CSV file into the database: rows are parsed lazily and written in chunks
+ * of {@code csv.import.chunk-size}, every chunk in its own transaction, so memory stays
+ * bounded by one chunk regardless of the file size.
+ */
+@Component
+@Slf4j
+public class CsvImporter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CsvImporter(TransactionTemplate transactionTemplate, @Value("${csv.import.chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public <D, E> ImportResultDto importFrom(InputStream inputStream, Class<D> type, Function<List<D>, List<E>> converter,
+                                             JpaRepository<E, ?> repository, Consumer<List<E>> afterCommit) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        int chunks = 0;
+        try (Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            CsvToBean<D> csvToBean = new CsvToBeanBuilder<D>(reader)
+                    .withType(type)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .withIgnoreQuotations(true)
+                    .withSeparator(',')
+                    .build();
+            Iterator<D> iterator = csvToBean.iterator();
+            List<D> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    List<D> rowsOfChunk = chunk;
+                    List<E> saved = transactionTemplate.execute(status -> repository.saveAll(converter.apply(rowsOfChunk)));
+                    afterCommit.accept(saved);
+                    rows += chunk.size();
+                    chunks++;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        log.info("Imported {} {} rows in {} chunks in {} ms", rows, type.getSimpleName(), chunks,
+                System.currentTimeMillis() - start);
+        return new ImportResultDto(rows, chunks);
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.restwebservice.datagen;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Appends a synthetic catalog, users with the role USER, and orders with their lines to the
+ * migrated schema. Ids follow the existing ones and names embed them spelled as letters, so runs
+ * can be repeated and every value passes the validation of the DTOs, as generated rows are read
+ * back and written again through the API.
+ * Skew follows Zipf distributions over randomly permuted ranks: category sizes, product
+ * popularity in order lines and orders per user, the last one giving a heavy tail of users with
+ * many orders. Everything is drawn from one {@link SplittableRandom} of {@code seed} in a fixed
+ * order, so the same settings produce the same data. Rows are written with multi-row inserts of
+ * {@code rowsPerStatement} rows.
+ */
+@Slf4j
+@Builder
+public class DatasetGenerator {
+
+    public static final List<String> WORDS = List.of("phone", "tablet", "laptop", "watch", "speaker", "camera",
+            "monitor", "keyboard", "mouse", "charger", "cable", "headphones", "router", "console", "drone", "printer");
+
+    private static final int MAX_LINES_PER_ORDER = 20;
+
+    @NonNull
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Password hash shared by all generated users.
+     */
+    @NonNull
+    private final String passwordHash;
+    @Builder.Default
+    private final long seed = 42;
+    @Builder.Default
+    private final int categories = 1000;
+    @Builder.Default
+    private final int products = 100_000;
+    @Builder.Default
+    private final int users = 10_000;
+    @Builder.Default
+    private final int orders = 100_000;
+    @Builder.Default
+    private final double linesPerOrder = 2.5;
+    @Builder.Default
+    private final double categorySkew = 0.8;
+    @Builder.Default
+    private final double productSkew = 1.0;
+    @Builder.Default
+    private final double userSkew = 0.8;
+    @Builder.Default
+    private final LocalDate ordersFrom = LocalDate.of(2022, 1, 1);
+    @Builder.Default
+    private final LocalDate ordersTo = LocalDate.of(2023, 12, 31);
+    @Builder.Default
+    private final int rowsPerStatement = 1000;
+
+    public static String email(int userId) {
+        return "user" + userId + "@datagen.test";
+    }
+
+    public GeneratedDataset generate() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        GeneratedDataset dataset = jdbcTemplate.execute((ConnectionCallback<GeneratedDataset>) connection -> {
+            int firstCategoryId = nextId(connection, "categories");
+            int firstProductId = nextId(connection, "products");
+            int firstUserId = nextId(connection, "users");
+            int firstOrderId = nextId(connection, "orders");
+            insertCategories(connection, random, firstCategoryId);
+            int[] prices = insertProducts(connection, random, firstProductId, firstCategoryId);
+            insertUsers(connection, random, firstUserId);
+            long lines = insertOrders(connection, random, firstOrderId, firstProductId, prices, firstUserId);
+            for (String table : List.of("categories", "products", "users", "orders")) {
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE id_generator SET next_val = ? WHERE table_name = ?")) {
+                    statement.setInt(1, nextId(connection, table));
+                    statement.setString(2, table);
+                    statement.executeUpdate();
+                }
+            }
+            return new GeneratedDataset(firstCategoryId, categories, firstProductId, products, firstUserId, users,
+                    firstOrderId, orders, lines);
+        });
+        log.info("Generated {} in {} s", dataset, (System.nanoTime() - start) / 1_000_000_000);
+        return dataset;
+    }
+
+    private void insertCategories(Connection connection, SplittableRandom random, int firstId) throws SQLException {
+        try (MultiRowInsert insert = new MultiRowInsert(connection, "categories", categories, null, "id", "name", "image_path", "rating")) {
+            for (int i = 0; i < categories; i++) {
+                int id = firstId + i;
+                insert.add(id, "Category " + letters(id), "category" + id + ".jpg", 1 + random.nextInt(5));
+            }
+        }
+    }
+
+    /**
+     * Returns the prices by product offset, which order prices are computed from.
+     */
+    private int[] insertProducts(Connection connection, SplittableRandom random, int firstId, int firstCategoryId) throws SQLException {
+        ZipfSampler categorySampler = new ZipfSampler(categories, categorySkew);
+        int[] categoryByRank = permutation(categories, random);
+        int[] prices = new int[products];
+        try (MultiRowInsert insert = new MultiRowInsert(connection, "products", products, null,
+                "id", "name", "description", "price", "category_id", "image_path")) {
+            for (int i = 0; i < products; i++) {
+                int id = firstId + i;
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                prices[i] = (int) Math.round(Math.exp(4 + 1.5 * (random.nextDouble() + random.nextDouble())));
+                insert.add(id, word + " " + letters(id),
+                        word + " " + WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size())),
+                        prices[i], firstCategoryId + categoryByRank[categorySampler.sample(random) - 1], "product" + id + ".jpg");
+            }
+        }
+        return prices;
+    }
+
+    private void insertUsers(Connection connection, SplittableRandom random, int firstId) throws SQLException {
+        int roleId;
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM roles WHERE name = 'USER'");
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("Role USER not found");
+            }
+            roleId = resultSet.getInt(1);
+        }
+        LocalDate birthdays = LocalDate.of(1950, 1, 1);
+        try (MultiRowInsert userInsert = new MultiRowInsert(connection, "users", users, null, "id", "name", "surname", "birthday",
+                "email", "password", "balance", "address", "phone_number");
+             MultiRowInsert roleInsert = new MultiRowInsert(connection, "user_roles", users, userInsert, "user_id", "role_id")) {
+            for (int i = 0; i < users; i++) {
+                int id = firstId + i;
+                userInsert.add(id, "Name " + letters(id), "Surname " + letters(id), birthdays.plusDays(random.nextInt(20_000)),
+                        email(id), passwordHash, random.nextInt(10_000),
+                        "Street " + (1 + random.nextInt(999)) + "-" + (1 + random.nextInt(200)),
+                        String.format("+375%09d", random.nextLong(1_000_000_000L)));
+                roleInsert.add(id, roleId);
+            }
+        }
+    }
+
+    /**
+     * Each order has 1 + a geometric number of distinct products, {@code linesPerOrder} on average.
+     * Returns the number of lines.
+     */
+    private long insertOrders(Connection connection, SplittableRandom random, int firstId, int firstProductId, int[] prices,
+                              int firstUserId) throws SQLException {
+        ZipfSampler userSampler = new ZipfSampler(users, userSkew);
+        ZipfSampler productSampler = new ZipfSampler(products, productSkew);
+        int[] userByRank = permutation(users, random);
+        int[] productByRank = permutation(products, random);
+        double extraLines = Math.log(1 - 1 / Math.max(1, linesPerOrder));
+        int maxLines = Math.min(MAX_LINES_PER_ORDER, products);
+        int days = (int) ChronoUnit.DAYS.between(ordersFrom, ordersTo) + 1;
+        int[] lineProducts = new int[maxLines];
+        int[] lineQuantities = new int[maxLines];
+        long lines = 0;
+        try (MultiRowInsert orderInsert = new MultiRowInsert(connection, "orders", orders, null, "id", "date", "user_id", "price");
+             MultiRowInsert lineInsert = new MultiRowInsert(connection, "orders_products", (long) (orders * linesPerOrder), orderInsert,
+                     "order_id", "product_id", "quantity")) {
+            for (int i = 0; i < orders; i++) {
+                int id = firstId + i;
+                int count = (int) Math.min(maxLines, 1 + Math.log(1 - random.nextDouble()) / extraLines);
+                int price = 0;
+                for (int line = 0; line < count; line++) {
+                    int product;
+                    do {
+                        product = productByRank[productSampler.sample(random) - 1];
+                    } while (contains(lineProducts, line, product));
+                    lineProducts[line] = product;
+                    lineQuantities[line] = 1 + random.nextInt(3);
+                    price += prices[product] * lineQuantities[line];
+                }
+                orderInsert.add(id, ordersFrom.plusDays(random.nextInt(days)),
+                        firstUserId + userByRank[userSampler.sample(random) - 1], price);
+                for (int line = 0; line < count; line++) {
+                    lineInsert.add(id, firstProductId + lineProducts[line], lineQuantities[line]);
+                }
+                lines += count;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Spells a positive id in bijective base 26 with the letters a to z, as names allow no digits.
+     */
+    static String letters(int id) {
+        StringBuilder letters = new StringBuilder();
+        for (int rest = id; rest > 0; rest = (rest - 1) / 26) {
+            letters.append((char) ('a' + (rest - 1) % 26));
+        }
+        return letters.reverse().toString();
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] permutation(int size, SplittableRandom random) {
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+        return permutation;
+    }
+
+    private static int nextId(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    /**
+     * Buffers rows and writes them {@code rowsPerStatement} at a time as one INSERT with a
+     * multi-row VALUES list, logging progress every tenth of {@code expected} rows. The rows of
+     * {@code parent}, which these rows reference, are always written first.
+     */
+    private final class MultiRowInsert implements AutoCloseable {
+        private final Connection connection;
+        private final String table;
+        private final MultiRowInsert parent;
+        private final String prefix;
+        private final String row;
+        private final long expected;
+        private final Object[] values;
+        private final long start = System.nanoTime();
+        private PreparedStatement fullStatement;
+        private int size;
+        private long inserted;
+        private long nextReport;
+
+        private MultiRowInsert(Connection connection, String table, long expected, MultiRowInsert parent, String... columns) {
+            this.connection = connection;
+            this.table = table;
+            this.parent = parent;
+            this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+            this.row = "(" + "?, ".repeat(columns.length - 1) + "?)";
+            this.expected = expected;
+            this.values = new Object[rowsPerStatement * columns.length];
+            this.nextReport = Math.max(1, expected / 10);
+        }
+
+        private void add(Object... rowValues) throws SQLException {
+            System.arraycopy(rowValues, 0, values, size, rowValues.length);
+            size += rowValues.length;
+            if (size == values.length) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            int rows = size / (values.length / rowsPerStatement);
+            if (rows == 0) {
+                return;
+            }
+            if (parent != null) {
+                parent.flush();
+            }
+            if (rows == rowsPerStatement && fullStatement == null) {
+                fullStatement = connection.prepareStatement(sql(rows));
+            }
+            PreparedStatement statement = rows == rowsPerStatement ? fullStatement : connection.prepareStatement(sql(rows));
+            try {
+                for (int i = 0; i < size; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                statement.executeUpdate();
+            } finally {
+                if (statement != fullStatement) {
+                    statement.close();
+                }
+            }
+            inserted += rows;
+            size = 0;
+            if (inserted >= nextReport) {
+                nextReport += Math.max(1, expected / 10);
+                log.info("{}: {} of about {} rows, {} rows/s", table, inserted, expected,
+                        inserted * 1_000_000_000L / Math.max(1, System.nanoTime() - start));
+            }
+        }
+
+        private String sql(int rows) {
+            return prefix + String.join(", ", Collections.nCopies(rows, row));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                if (fullStatement != null) {
+                    fullStatement.close();
+                }
+            }
+        }
+    }
+}
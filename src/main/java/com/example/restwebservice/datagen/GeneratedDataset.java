@@ -0,0 +1,9 @@
+package com.example.restwebservice.datagen;
+
+/**
+ * Id ranges written by {@link DatasetGenerator}: {@code categories} ids from
+ * {@code firstCategoryId} on, and so on. Order lines have database generated ids.
+ */
+public record GeneratedDataset(int firstCategoryId, int categories, int firstProductId, int products, int firstUserId,
+                               int users, int firstOrderId, int orders, long orderLines) {
+}
@@ -0,0 +1,40 @@
+package com.example.restwebservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResultDto<T> {
+    private List<T> items;
+    private List<Integer> missingIds;
+
+    /**
+     * Orders {@code found} by the requested ids, dropping duplicate ids, and lists the ids that
+     * matched nothing.
+     */
+    public static <T> BulkResultDto<T> of(Collection<Integer> ids, Collection<T> found, Function<T, Integer> idOf) {
+        Map<Integer, T> byId = found.stream().collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+        List<T> items = new ArrayList<>(byId.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            T item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BulkResultDto<>(items, missingIds);
+    }
+}
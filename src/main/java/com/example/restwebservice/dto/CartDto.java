@@ -1,34 +1,23 @@
 package com.example.restwebservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class CartDto {
+    private List<CartLineDto> lines = new ArrayList<>();
+    private long totalPrice;
+    private long totalQuantity;
 
-    private final List<ProductDto> products;
-    private int totalPrice;
-
-    public CartDto() {
-        this.products = new ArrayList<>();
-    }
-
-    public void addProduct(ProductDto productDto) {
-        products.add(productDto);
-        totalPrice += productDto.getPrice();
-    }
-
-    public void removeProduct(ProductDto productDto) {
-        products.remove(productDto);
-        if (productDto != null) {
-            totalPrice -= productDto.getPrice();
-        }
-    }
-
-    public void clear() {
-        products.clear();
-        totalPrice = 0;
+    @JsonIgnore
+    public boolean isEmpty() {
+        return lines == null || lines.isEmpty();
     }
 }
@@ -0,0 +1,15 @@
+package com.example.restwebservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartLineDto {
+    private int productId;
+    private String name;
+    private int price;
+    private int quantity;
+}
@@ -0,0 +1,13 @@
+package com.example.restwebservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDto {
+    private long imported;
+    private int chunks;
+}
@@ -7,6 +7,7 @@ import com.opencsv.bean.CsvDate;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -39,4 +40,11 @@ public class OrderDto extends BaseDto {
     @CsvBindAndSplitByName(elementType = ProductDto.class, splitOn = "\\|", converter = ProductDtoCsvConverter.class)
     @NotNull
     private List<ProductDto> productList;
+
+    /**
+     * Units ordered of each product of {@link #productList}, in the same order. Without it every
+     * listed product counts as one unit.
+     */
+    @CsvBindAndSplitByName(elementType = Integer.class, splitOn = "\\|", writeDelimiter = "|")
+    private List<@Positive Integer> quantities;
 }
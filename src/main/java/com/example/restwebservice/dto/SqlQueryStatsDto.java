@@ -0,0 +1,17 @@
+package com.example.restwebservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SqlQueryStatsDto {
+    private String fingerprint;
+    private long executions;
+    private long rows;
+    private double totalMillis;
+    private double meanMillis;
+    private double maxMillis;
+}
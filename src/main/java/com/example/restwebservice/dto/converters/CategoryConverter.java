@@ -1,6 +1,8 @@
 package com.example.restwebservice.dto.converters;
 
 import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.views.CategoryView;
 import com.example.restwebservice.entities.Category;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -25,14 +27,23 @@ public class CategoryConverter {
                 .orElse(null);
     }
 
+    public CategoryDto toDto(CategoryView view, List<ProductDto> products) {
+        return CategoryDto.builder()
+                .id(view.id())
+                .name(view.name())
+                .rating(view.rating())
+                .imagePath(view.imagePath())
+                .products(products)
+                .build();
+    }
+
     public Category fromDto(CategoryDto categoryDto) {
         return Optional.ofNullable(categoryDto).map(c -> Category.builder()
                         .id(c.getId())
                         .name(c.getName())
                         .rating(c.getRating())
                         .imagePath(c.getImagePath())
-                        .productList(Optional.ofNullable(c.getProducts()).map(products -> products.stream()
-                                .map(productConverter::fromDto).toList()).orElse(List.of()))
+                        .productList(Optional.ofNullable(c.getProducts()).map(productConverter::fromDtos).orElse(List.of()))
                         .build())
                 .orElse(null);
     }
@@ -1,13 +1,26 @@
 package com.example.restwebservice.dto.converters;
 
 import com.example.restwebservice.dto.OrderDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.views.OrderView;
 import com.example.restwebservice.entities.Order;
+import com.example.restwebservice.entities.OrderLine;
+import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.entities.User;
 import com.example.restwebservice.repositories.UserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @AllArgsConstructor
@@ -22,20 +35,76 @@ public class OrderConverter {
                         .price(o.getPrice())
                         .date(o.getDate())
                         .userId(o.getUser().getId())
-                        .productList(Optional.ofNullable(o.getProductList()).map(products -> products
-                                .stream().map(productConverter::toDto).toList()).orElse(List.of()))
+                        .productList(Optional.ofNullable(o.getLines()).map(lines -> lines
+                                .stream().map(line -> productConverter.toDto(line.getProduct())).toList()).orElse(List.of()))
+                        .quantities(Optional.ofNullable(o.getLines()).map(lines -> lines
+                                .stream().map(OrderLine::getQuantity).toList()).orElse(List.of()))
                         .build())
                 .orElse(null);
     }
 
+    public OrderDto toDto(OrderView view, List<ProductDto> products, List<Integer> quantities) {
+        return OrderDto.builder()
+                .id(view.id())
+                .price(view.price())
+                .date(view.date())
+                .userId(view.userId())
+                .productList(products)
+                .quantities(quantities)
+                .build();
+    }
+
     public Order fromDto(OrderDto orderDto) {
         return Optional.ofNullable(orderDto).map(o -> Order.builder()
                         .price(o.getPrice())
                         .date(o.getDate())
                         .user(userRepository.findById(o.getUserId()).orElse(null))
-                        .productList(Optional.ofNullable(o.getProductList()).map(products -> products
-                                .stream().map(productConverter::fromDto).toList()).orElse(List.of()))
+                        .lines(linesFromDto(o))
                         .build())
                 .orElse(null);
     }
+
+    public List<OrderLine> linesFromDto(OrderDto orderDto) {
+        return lines(Optional.ofNullable(orderDto.getProductList()).map(productConverter::fromDtos).orElse(List.of()),
+                orderDto.getQuantities());
+    }
+
+    public List<Order> fromDtos(Collection<OrderDto> orderDtos) {
+        List<OrderDto> dtos = orderDtos.stream().filter(Objects::nonNull).toList();
+        List<Integer> userIds = dtos.stream().map(OrderDto::getUserId).distinct().toList();
+        Map<Integer, User> users = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds)
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        Iterator<Product> products = productConverter.fromDtos(dtos.stream()
+                .flatMap(o -> Optional.ofNullable(o.getProductList()).orElse(List.of()).stream())
+                .toList()).iterator();
+        return dtos.stream().<Order>map(o -> Order.builder()
+                        .price(o.getPrice())
+                        .date(o.getDate())
+                        .user(users.get(o.getUserId()))
+                        .lines(lines(Optional.ofNullable(o.getProductList()).orElse(List.of()).stream()
+                                .map(p -> products.next()).toList(), o.getQuantities()))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Pairs each product with its quantity, one unit when there are no quantities, and merges repeated
+     * products into one line so that {@code orders_products} keeps one row per distinct product.
+     */
+    private static List<OrderLine> lines(List<Product> products, List<Integer> quantities) {
+        if (quantities != null && quantities.size() != products.size()) {
+            throw new IllegalArgumentException(String.format("Order lists %d products but %d quantities",
+                    products.size(), quantities.size()));
+        }
+        Map<Integer, OrderLine> lines = new LinkedHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            int quantity = quantities == null ? 1 : quantities.get(i);
+            lines.merge(product.getId(), new OrderLine(product, quantity), (line, repeated) -> {
+                line.setQuantity(line.getQuantity() + repeated.getQuantity());
+                return line;
+            });
+        }
+        return new ArrayList<>(lines.values());
+    }
 }
@@ -1,12 +1,20 @@
 package com.example.restwebservice.dto.converters;
 
 import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.views.ProductView;
+import com.example.restwebservice.entities.Category;
 import com.example.restwebservice.entities.Product;
 import com.example.restwebservice.repositories.CategoryRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @AllArgsConstructor
@@ -25,6 +33,17 @@ public class ProductConverter {
                 .orElse(null);
     }
 
+    public ProductDto toDto(ProductView view) {
+        return ProductDto.builder()
+                .id(view.id())
+                .name(view.name())
+                .description(view.description())
+                .price(view.price())
+                .categoryId(view.categoryId())
+                .imagePath(view.imagePath())
+                .build();
+    }
+
     public Product fromDto(ProductDto productDto) {
         return Optional.ofNullable(productDto).map(p -> Product.builder()
                         .id(p.getId())
@@ -36,4 +55,23 @@ public class ProductConverter {
                         .build())
                 .orElse(null);
     }
+
+    public List<Product> fromDtos(Collection<ProductDto> productDtos) {
+        List<Integer> categoryIds = productDtos.stream()
+                .filter(Objects::nonNull)
+                .map(ProductDto::getCategoryId)
+                .distinct()
+                .toList();
+        Map<Integer, Category> categories = categoryIds.isEmpty() ? Map.of() : categoryRepository.findAllById(categoryIds)
+                .stream().collect(Collectors.toMap(Category::getId, Function.identity()));
+        return productDtos.stream().<Product>map(p -> p == null ? null : Product.builder()
+                        .id(p.getId())
+                        .name(p.getName())
+                        .description(p.getDescription())
+                        .price(p.getPrice())
+                        .category(categories.get(p.getCategoryId()))
+                        .imagePath(p.getImagePath())
+                        .build())
+                .toList();
+    }
 }
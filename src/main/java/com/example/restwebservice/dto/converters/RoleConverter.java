@@ -1,6 +1,7 @@
 package com.example.restwebservice.dto.converters;
 
 import com.example.restwebservice.dto.RoleDto;
+import com.example.restwebservice.dto.views.RoleView;
 import com.example.restwebservice.entities.Role;
 import org.springframework.stereotype.Component;
 
@@ -17,6 +18,13 @@ public class RoleConverter {
                 .orElse(null);
     }
 
+    public RoleDto toDto(RoleView view) {
+        return RoleDto.builder()
+                .id(view.id())
+                .name(view.name())
+                .build();
+    }
+
     public Role fromDto(RoleDto roleDto) {
         return Optional.of(roleDto).map(r -> Role.builder()
                         .name(r.getName())
@@ -1,6 +1,9 @@
 package com.example.restwebservice.dto.converters;
 
+import com.example.restwebservice.dto.OrderDto;
+import com.example.restwebservice.dto.RoleDto;
 import com.example.restwebservice.dto.UserDto;
+import com.example.restwebservice.dto.views.UserView;
 import com.example.restwebservice.entities.User;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -34,6 +37,22 @@ public class UserConverter {
                 .orElse(null);
     }
 
+    public UserDto toDto(UserView view, List<OrderDto> orders, List<RoleDto> roles) {
+        return UserDto.builder()
+                .id(view.id())
+                .name(view.name())
+                .surname(view.surname())
+                .birthday(view.birthday())
+                .email(view.email())
+                .password(view.password())
+                .balance(view.balance())
+                .address(view.address())
+                .phoneNumber(view.phoneNumber())
+                .orders(orders)
+                .roles(roles)
+                .build();
+    }
+
     public User fromDto(UserDto userDto) {
         return Optional.ofNullable(userDto).map(u -> User.builder()
                         .name(u.getName())
@@ -0,0 +1,10 @@
+package com.example.restwebservice.dto.views;
+
+public record CategoryLineView(CategoryView category, ProductView product) {
+
+    public CategoryLineView(int categoryId, String categoryName, String categoryImagePath, int rating, Integer productId,
+                            String name, String description, Integer price, String imagePath) {
+        this(new CategoryView(categoryId, categoryName, categoryImagePath, rating), productId == null ? null
+                : new ProductView(productId, name, description, price, categoryId, imagePath));
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.restwebservice.dto.views;
+
+public record CategoryView(int id, String name, String imagePath, int rating) {
+}
@@ -0,0 +1,12 @@
+package com.example.restwebservice.dto.views;
+
+import java.time.LocalDate;
+
+public record OrderLineView(OrderView order, ProductView product, int quantity) {
+
+    public OrderLineView(int orderId, int orderPrice, LocalDate date, int userId, Integer productId, String name,
+                         String description, Integer price, Integer categoryId, String imagePath, Integer quantity) {
+        this(new OrderView(orderId, orderPrice, date, userId), productId == null ? null
+                : new ProductView(productId, name, description, price, categoryId, imagePath), quantity == null ? 0 : quantity);
+    }
+}
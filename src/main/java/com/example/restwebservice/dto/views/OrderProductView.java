@@ -0,0 +1,9 @@
+package com.example.restwebservice.dto.views;
+
+public record OrderProductView(int orderId, ProductView product, int quantity) {
+
+    public OrderProductView(int orderId, int id, String name, String description, int price, int categoryId, String imagePath,
+                            int quantity) {
+        this(orderId, new ProductView(id, name, description, price, categoryId, imagePath), quantity);
+    }
+}
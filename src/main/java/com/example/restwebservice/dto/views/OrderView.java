@@ -0,0 +1,6 @@
+package com.example.restwebservice.dto.views;
+
+import java.time.LocalDate;
+
+public record OrderView(int id, int price, LocalDate date, int userId) {
+}
@@ -0,0 +1,4 @@
+package com.example.restwebservice.dto.views;
+
+public record ProductView(int id, String name, String description, int price, int categoryId, String imagePath) {
+}
@@ -0,0 +1,4 @@
+package com.example.restwebservice.dto.views;
+
+public record RoleView(int userId, int id, String name) {
+}
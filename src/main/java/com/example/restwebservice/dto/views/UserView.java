@@ -0,0 +1,7 @@
+package com.example.restwebservice.dto.views;
+
+import java.time.LocalDate;
+
+public record UserView(int id, String name, String surname, LocalDate birthday, String email, String password,
+                       int balance, String address, String phoneNumber) {
+}
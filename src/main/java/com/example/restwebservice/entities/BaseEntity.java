@@ -1,13 +1,15 @@
 package com.example.restwebservice.entities;
 
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 
 @Data
 @NoArgsConstructor
@@ -16,7 +18,14 @@ import lombok.experimental.SuperBuilder;
 @MappedSuperclass
 public class BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "id_generator")
+    @GenericGenerator(name = "id_generator", type = TableGenerator.class, parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = "id_generator"),
+            @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "table_name"),
+            @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "next_val"),
+            @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     protected int id;
 }
-
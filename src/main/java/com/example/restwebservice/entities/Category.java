@@ -3,6 +3,8 @@ package com.example.restwebservice.entities;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -21,12 +23,13 @@ import java.util.List;
 @SuperBuilder
 @Entity
 @Table(name = "categories")
+@NamedEntityGraph(name = "Category.productList", attributeNodes = @NamedAttributeNode("productList"))
 public class Category extends BaseEntity {
 
     private String name;
     private String imagePath;
     private int rating;
-    @OneToMany(mappedBy = "category", orphanRemoval = true,cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "category", orphanRemoval = true,cascade = CascadeType.ALL,fetch = FetchType.LAZY)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Product> productList;
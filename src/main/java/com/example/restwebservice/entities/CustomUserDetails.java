@@ -1,10 +1,14 @@
 package com.example.restwebservice.entities;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class CustomUserDetails implements UserDetails {
     private String login;
@@ -19,6 +23,18 @@ public class CustomUserDetails implements UserDetails {
         return c;
     }
 
+    public static CustomUserDetails fromClaims(Claims claims) {
+        CustomUserDetails c = new CustomUserDetails();
+        c.login = claims.getSubject();
+        Object roles = claims.get("roles");
+        c.grantedAuthorities = roles instanceof List<?> list ? list.stream()
+                .map(r -> r instanceof Map<?, ?> role ? role.get("name") : r)
+                .filter(Objects::nonNull)
+                .map(name -> new SimpleGrantedAuthority(name.toString()))
+                .toList() : List.of();
+        return c;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return grantedAuthorities;
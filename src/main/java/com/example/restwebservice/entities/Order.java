@@ -1,10 +1,10 @@
 package com.example.restwebservice.entities;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -26,19 +26,18 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "orders")
-
 public class Order extends BaseEntity {
 
     private int price;
     private LocalDate date;
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(name = "orders_products", joinColumns = @JoinColumn(name = "order_id"),
-            inverseJoinColumns = @JoinColumn(name = "product_id"))
-    private List<Product> productList;
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "orders_products", joinColumns = @JoinColumn(name = "order_id"))
+    private List<OrderLine> lines;
 }
@@ -0,0 +1,33 @@
+package com.example.restwebservice.entities;
+
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One {@code orders_products} row: a distinct product of the order and how many units of it were ordered.
+ * The product is fetched eagerly so that loading the lines of an order joins their products in the same statement,
+ * and deleting a product deletes its lines, like the {@code ON DELETE CASCADE} of the migrated schema.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+@Embeddable
+public class OrderLine {
+
+    @ToString.Exclude
+    @ManyToOne(optional = false, fetch = FetchType.EAGER)
+    @JoinColumn(name = "product_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+    private int quantity;
+}
@@ -0,0 +1,13 @@
+package com.example.restwebservice.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class LoadTimeoutException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoadTimeoutException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.restwebservice.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends Exception {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
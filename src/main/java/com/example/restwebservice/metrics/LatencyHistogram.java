@@ -0,0 +1,117 @@
+package com.example.restwebservice.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies. Every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, so a recorded value is off by at most 1/32 (about 3%)
+ * from the bucket bounds across the whole range, 1ns to about 36 minutes; larger values land in
+ * the last bucket. {@link #record} only does atomic increments on preallocated arrays and never
+ * allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile, or 0 when nothing was recorded. Counts
+     * are read bucket by bucket while recording goes on, so the result is approximate under load.
+     */
+    public long valueAt(double quantile) {
+        long[] snapshot = snapshot();
+        long total = snapshot[BUCKETS];
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Cumulative counts for the ascending {@code bounds} followed by the total, read from one
+     * snapshot. A bucket counts towards a bound once its upper bound is not above it, so values
+     * just below a bound that share a bucket with larger values are counted at the next bound.
+     */
+    public long[] cumulativeCounts(long[] bounds) {
+        long[] snapshot = snapshot();
+        long[] cumulative = new long[bounds.length + 1];
+        int bucket = 0;
+        long seen = 0;
+        for (int b = 0; b < bounds.length; b++) {
+            int end = bounds[b] >= MAX_VALUE ? BUCKETS : index(bounds[b] + 1);
+            for (; bucket < end; bucket++) {
+                seen += snapshot[bucket];
+            }
+            cumulative[b] = seen;
+        }
+        cumulative[bounds.length] = snapshot[BUCKETS];
+        return cumulative;
+    }
+
+    /**
+     * Bucket counts with their total in the extra last slot.
+     */
+    private long[] snapshot() {
+        long[] snapshot = new long[BUCKETS + 1];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            snapshot[BUCKETS] += snapshot[i];
+        }
+        return snapshot;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS | (index & (SUB_BUCKETS - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.restwebservice.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call of the advised beans into a per-method {@link MethodMetrics}, together with the
+ * statements, rows and JDBC time the call added to the thread's {@link SqlCounters}. The metrics are
+ * looked up by {@link Method}, which the invocation already holds, so after the first call of a
+ * method the recording path does not allocate.
+ */
+public class LatencyInterceptor implements MethodInterceptor {
+
+    private final Map<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMetrics method = metrics.get(invocation.getMethod());
+        if (method == null) {
+            method = metrics.computeIfAbsent(invocation.getMethod(), m -> create(invocation, m));
+        }
+        SqlCounters sql = SqlCounters.current();
+        long statements = sql.getStatements();
+        long rows = sql.getRows();
+        long sqlNanos = sql.getNanos();
+        method.getInFlight().increment();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            method.getErrors().increment();
+            throw e;
+        } finally {
+            method.getLatency().record(System.nanoTime() - start);
+            method.getInFlight().decrement();
+            method.getSqlStatements().add(sql.getStatements() - statements);
+            method.getSqlRows().add(sql.getRows() - rows);
+            method.getSqlNanos().add(sql.getNanos() - sqlNanos);
+        }
+    }
+
+    public Collection<MethodMetrics> getMetrics() {
+        return metrics.values();
+    }
+
+    private static MethodMetrics create(MethodInvocation invocation, Method method) {
+        Class<?> type = invocation.getThis() == null ? method.getDeclaringClass() : invocation.getThis().getClass();
+        while (type.getName().contains("$$")) {
+            type = type.getSuperclass();
+        }
+        String layer = type.isAnnotationPresent(RestController.class) ? "controller" : "service";
+        return new MethodMetrics(layer, type.getSimpleName(), method.getName());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.restwebservice.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, error count, in-flight gauge and JDBC work of one instrumented method.
+ */
+@Getter
+public class MethodMetrics {
+
+    private final String layer;
+    private final String type;
+    private final String method;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder sqlStatements = new LongAdder();
+    private final LongAdder sqlRows = new LongAdder();
+    private final LongAdder sqlNanos = new LongAdder();
+
+    public MethodMetrics(String layer, String type, String method) {
+        this.layer = layer;
+        this.type = type;
+        this.method = method;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.restwebservice.metrics;
+
+import java.util.Map;
+
+/**
+ * A component that publishes its counters and gauges under {@link #metricsName()} on the /metrics endpoint.
+ */
+public interface MetricsSource {
+
+    String metricsName();
+
+    Map<String, Number> metrics();
+}
@@ -0,0 +1,103 @@
+package com.example.restwebservice.metrics;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Renders method latencies and the {@link MetricsSource} values in the Prometheus text exposition
+ * format. Latencies are histograms with fixed {@code le} bounds from 100us to 10s, summed from the
+ * {@link LatencyHistogram} buckets so they aggregate across instances, plus p50, p99 and p999
+ * gauges over the process lifetime.
+ */
+public final class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final long[] BUCKET_BOUNDS = {100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000,
+            10_000_000, 25_000_000, 50_000_000, 100_000_000, 250_000_000, 500_000_000, 1_000_000_000,
+            2_500_000_000L, 5_000_000_000L, 10_000_000_000L};
+    private static final Pattern CAMEL_CASE = Pattern.compile("([a-z0-9])([A-Z])");
+    private static final Pattern INVALID_CHARS = Pattern.compile("[^a-zA-Z0-9_]");
+
+    private PrometheusText() {
+    }
+
+    public static String render(Collection<MethodMetrics> methods, Collection<MetricsSource> sources) {
+        StringBuilder out = new StringBuilder();
+        header(out, "method_latency_seconds", "histogram", "Latency of controller and service methods");
+        for (MethodMetrics method : methods) {
+            LatencyHistogram latency = method.getLatency();
+            long[] cumulative = latency.cumulativeCounts(BUCKET_BOUNDS);
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                sample(out, "method_latency_seconds_bucket", labels(method) + ",le=\"" + le(BUCKET_BOUNDS[i]) + "\"",
+                        cumulative[i]);
+            }
+            sample(out, "method_latency_seconds_bucket", labels(method) + ",le=\"+Inf\"", cumulative[BUCKET_BOUNDS.length]);
+            sample(out, "method_latency_seconds_sum", labels(method), seconds(latency.getSum()));
+            sample(out, "method_latency_seconds_count", labels(method), cumulative[BUCKET_BOUNDS.length]);
+        }
+        header(out, "method_latency_quantile_seconds", "gauge", "Latency quantiles of controller and service methods");
+        for (MethodMetrics method : methods) {
+            for (double quantile : QUANTILES) {
+                sample(out, "method_latency_quantile_seconds", labels(method) + ",quantile=\"" + quantile + "\"",
+                        seconds(method.getLatency().valueAt(quantile)));
+            }
+        }
+        header(out, "method_latency_max_seconds", "gauge", "Slowest call of controller and service methods");
+        methods.forEach(m -> sample(out, "method_latency_max_seconds", labels(m), seconds(m.getLatency().getMax())));
+        header(out, "method_errors_total", "counter", "Calls of controller and service methods that threw");
+        methods.forEach(m -> sample(out, "method_errors_total", labels(m), m.getErrors().sum()));
+        header(out, "method_in_flight", "gauge", "Calls of controller and service methods in progress");
+        methods.forEach(m -> sample(out, "method_in_flight", labels(m), m.getInFlight().sum()));
+        header(out, "method_sql_statements_total", "counter", "SQL statements issued by controller and service methods");
+        methods.forEach(m -> sample(out, "method_sql_statements_total", labels(m), m.getSqlStatements().sum()));
+        header(out, "method_sql_rows_total", "counter", "Rows fetched by controller and service methods");
+        methods.forEach(m -> sample(out, "method_sql_rows_total", labels(m), m.getSqlRows().sum()));
+        header(out, "method_sql_seconds_total", "counter", "JDBC time of controller and service methods");
+        methods.forEach(m -> sample(out, "method_sql_seconds_total", labels(m), seconds(m.getSqlNanos().sum())));
+        for (MetricsSource source : sources) {
+            Map<String, Number> metrics = new TreeMap<>(source.metrics());
+            metrics.forEach((key, value) -> {
+                String name = name(source.metricsName() + "_" + key);
+                header(out, name, "untyped", null);
+                sample(out, name, null, value);
+            });
+        }
+        return out.toString();
+    }
+
+    static String name(String name) {
+        return INVALID_CHARS.matcher(CAMEL_CASE.matcher(name).replaceAll("$1_$2")).replaceAll("_").toLowerCase();
+    }
+
+    private static String labels(MethodMetrics method) {
+        return "layer=\"" + method.getLayer() + "\",class=\"" + method.getType() + "\",method=\"" + method.getMethod() + "\"";
+    }
+
+    private static String le(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        if (help != null) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        }
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Number value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.restwebservice.metrics;
+
+import com.example.restwebservice.dto.SqlQueryStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Executions, rows and JDBC time per {@link SqlFingerprint}, fed by {@link TracingDataSource}.
+ * Statements slower than {@code sql.slow-query.threshold} are logged with their fingerprint. At
+ * most {@code sql.slow-query.max-fingerprints} shapes are tracked; further ones are aggregated
+ * under {@value #OTHER}. The heaviest fingerprints by total time are logged as a table every
+ * {@code sql.slow-query.report-interval}.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog implements MetricsSource {
+
+    public static final String OTHER = "<other>";
+
+    private static final Map<String, ToDoubleFunction<SqlQueryStatsDto>> ORDERS = Map.of(
+            "total", SqlQueryStatsDto::getTotalMillis,
+            "mean", SqlQueryStatsDto::getMeanMillis,
+            "max", SqlQueryStatsDto::getMaxMillis,
+            "executions", SqlQueryStatsDto::getExecutions,
+            "rows", SqlQueryStatsDto::getRows);
+
+    private final Cache<String, QueryStats> bySql;
+    private final Map<String, QueryStats> byFingerprint = new ConcurrentHashMap<>();
+    private final long thresholdNanos;
+    private final int maxFingerprints;
+    private final int reportSize;
+    private final LongAdder slow = new LongAdder();
+
+    public SlowQueryLog(@Value("${sql.slow-query.threshold:PT0.2S}") Duration threshold,
+                        @Value("${sql.slow-query.max-fingerprints:1000}") int maxFingerprints,
+                        @Value("${sql.slow-query.report-size:10}") int reportSize) {
+        this.bySql = Caffeine.newBuilder().maximumSize(maxFingerprints * 4L).build();
+        this.thresholdNanos = threshold.toNanos();
+        this.maxFingerprints = maxFingerprints;
+        this.reportSize = reportSize;
+    }
+
+    /**
+     * Returns the stats of the statement's fingerprint. SQL strings are remembered, so the
+     * fingerprint of a repeated statement is computed once.
+     */
+    public QueryStats statsFor(String sql) {
+        return bySql.get(sql, s -> {
+            String fingerprint = SqlFingerprint.of(s);
+            QueryStats stats = byFingerprint.get(fingerprint);
+            if (stats != null) {
+                return stats;
+            }
+            return byFingerprint.size() < maxFingerprints
+                    ? byFingerprint.computeIfAbsent(fingerprint, QueryStats::new)
+                    : byFingerprint.computeIfAbsent(OTHER, QueryStats::new);
+        });
+    }
+
+    void executed(QueryStats stats, long nanos) {
+        stats.executions.increment();
+        stats.nanos.add(nanos);
+        stats.max.accumulate(nanos);
+        if (nanos >= thresholdNanos) {
+            slow.increment();
+            log.warn("Slow query took {} ms: {}", nanos / 1_000_000, stats.fingerprint);
+        }
+    }
+
+    void fetched(QueryStats stats, long nanos, boolean row) {
+        if (row) {
+            stats.rows.increment();
+        }
+        stats.nanos.add(nanos);
+    }
+
+    /**
+     * The {@code limit} heaviest fingerprints by {@code orderBy}: total, mean, max, executions or rows.
+     */
+    public List<SqlQueryStatsDto> top(int limit, String orderBy) {
+        ToDoubleFunction<SqlQueryStatsDto> key = ORDERS.get(orderBy);
+        if (key == null) {
+            throw new IllegalArgumentException(String.format("Unsupported order %s", orderBy));
+        }
+        return byFingerprint.values().stream()
+                .map(QueryStats::toDto)
+                .sorted(Comparator.comparingDouble(key).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Scheduled(initialDelayString = "${sql.slow-query.report-interval:PT1H}",
+            fixedDelayString = "${sql.slow-query.report-interval:PT1H}")
+    public void report() {
+        List<SqlQueryStatsDto> top = top(reportSize, "total");
+        if (top.isEmpty()) {
+            return;
+        }
+        StringBuilder table = new StringBuilder(String.format("%10s %10s %12s %10s %10s  %s",
+                "executions", "rows", "total ms", "mean ms", "max ms", "fingerprint"));
+        top.forEach(q -> table.append(String.format("%n%10d %10d %12.1f %10.2f %10.2f  %s", q.getExecutions(), q.getRows(),
+                q.getTotalMillis(), q.getMeanMillis(), q.getMaxMillis(), q.getFingerprint())));
+        log.info("Top {} queries by total JDBC time:\n{}", top.size(), table);
+    }
+
+    @Override
+    public String metricsName() {
+        return "sql";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        long executions = 0;
+        long rows = 0;
+        long nanos = 0;
+        for (QueryStats stats : byFingerprint.values()) {
+            executions += stats.executions.sum();
+            rows += stats.rows.sum();
+            nanos += stats.nanos.sum();
+        }
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("statements", executions);
+        metrics.put("rows", rows);
+        metrics.put("totalMillis", nanos / 1_000_000.0);
+        metrics.put("slowStatements", slow.sum());
+        metrics.put("fingerprints", byFingerprint.size());
+        return metrics;
+    }
+
+    public static final class QueryStats {
+        private final String fingerprint;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private QueryStats(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private SqlQueryStatsDto toDto() {
+            long count = executions.sum();
+            double total = nanos.sum() / 1_000_000.0;
+            return new SqlQueryStatsDto(fingerprint, count, rows.sum(), total,
+                    count == 0 ? 0.0 : total / count, max.get() / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.restwebservice.metrics;
+
+/**
+ * JDBC work done by the current thread since it started: statements executed, rows fetched and
+ * nanoseconds spent in the driver. Requests and method calls read the totals before and after and
+ * attribute the difference, so nothing is allocated per scope.
+ */
+public final class SqlCounters {
+
+    private static final ThreadLocal<SqlCounters> CURRENT = ThreadLocal.withInitial(SqlCounters::new);
+
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    private SqlCounters() {
+    }
+
+    public static SqlCounters current() {
+        return CURRENT.get();
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    void executed(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void fetched(long elapsedNanos, boolean row) {
+        if (row) {
+            rows++;
+        }
+        nanos += elapsedNanos;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.restwebservice.metrics;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL to a parameter-free shape, so the same query with different literals, IN list
+ * lengths or multi-row VALUES counts shares one slow-query entry.
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\.\\.\\.\\)(?:\\s*,\\s*\\(\\.\\.\\.\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = PARAMETER_LIST.matcher(fingerprint).replaceAll("(...)");
+        fingerprint = ROW_LIST.matcher(fingerprint).replaceAll("(...)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim().toLowerCase();
+    }
+}
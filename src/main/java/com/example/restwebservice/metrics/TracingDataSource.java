@@ -0,0 +1,126 @@
+package com.example.restwebservice.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDK proxies around a {@link DataSource} and the connections, statements and result sets it
+ * hands out. Every execute and every {@link ResultSet#next()} is timed into the thread's
+ * {@link SqlCounters} and into the {@link SlowQueryLog} entry of the statement's SQL.
+ */
+public final class TracingDataSource {
+
+    private TracingDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource, SlowQueryLog slowQueryLog) {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            if (result instanceof Connection connection) {
+                return wrap(connection, slowQueryLog);
+            }
+            return unwrapped(proxy, method, args, result);
+        });
+    }
+
+    private static Connection wrap(Connection connection, SlowQueryLog slowQueryLog) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, statement, slowQueryLog.statsFor((String) args[0]), slowQueryLog);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, statement, slowQueryLog.statsFor((String) args[0]), slowQueryLog);
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, statement, null, slowQueryLog);
+            }
+            return unwrapped(proxy, method, args, result);
+        });
+    }
+
+    /**
+     * {@code prepared} is the stats of a prepared statement's SQL, {@code null} for a plain
+     * statement, whose SQL is only known when it is executed.
+     */
+    private static <S extends Statement> S wrap(Class<S> type, S statement, SlowQueryLog.QueryStats prepared,
+                                                SlowQueryLog slowQueryLog) {
+        SlowQueryLog.QueryStats[] last = {prepared};
+        return proxy(type, (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                Object result = invoke(statement, method, args);
+                if ("getResultSet".equals(method.getName()) && result instanceof ResultSet resultSet && last[0] != null) {
+                    return wrap(resultSet, last[0], slowQueryLog);
+                }
+                return unwrapped(proxy, method, args, result);
+            }
+            SlowQueryLog.QueryStats stats = args != null && args.length > 0 && args[0] instanceof String sql
+                    ? slowQueryLog.statsFor(sql)
+                    : prepared;
+            last[0] = stats;
+            long start = System.nanoTime();
+            try {
+                Object result = invoke(statement, method, args);
+                return result instanceof ResultSet resultSet && stats != null ? wrap(resultSet, stats, slowQueryLog) : result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SqlCounters.current().executed(elapsed);
+                if (stats != null) {
+                    slowQueryLog.executed(stats, elapsed);
+                }
+            }
+        });
+    }
+
+    private static ResultSet wrap(ResultSet resultSet, SlowQueryLog.QueryStats stats, SlowQueryLog slowQueryLog) {
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            if (!"next".equals(method.getName())) {
+                return unwrapped(proxy, method, args, invoke(resultSet, method, args));
+            }
+            long start = System.nanoTime();
+            boolean row = resultSet.next();
+            long elapsed = System.nanoTime() - start;
+            SqlCounters.current().fetched(elapsed, row);
+            slowQueryLog.fetched(stats, elapsed, row);
+            return row;
+        });
+    }
+
+    /**
+     * Answers {@code unwrap} to the proxied JDBC interface with the proxy, not the raw object.
+     */
+    private static Object unwrapped(Object proxy, Method method, Object[] args, Object result) {
+        if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+            return proxy;
+        }
+        return result;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxies compare by identity: Hibernate keys its statement and result set registry by them.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> args.length == 1 ? proxy == args[0] : handler.invoke(proxy, method, args);
+            case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.invoke(proxy, method, args);
+            default -> handler.invoke(proxy, method, args);
+        });
+    }
+}
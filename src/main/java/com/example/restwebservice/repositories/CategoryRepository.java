@@ -1,7 +1,41 @@
 package com.example.restwebservice.repositories;
 
+import com.example.restwebservice.dto.views.CategoryLineView;
+import com.example.restwebservice.dto.views.CategoryView;
 import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.search.IndexedCategory;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface CategoryRepository extends JpaRepository<Category, Integer> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface CategoryRepository extends JpaRepository<Category, Integer>, JpaSpecificationExecutor<Category> {
+    @EntityGraph("Category.productList")
+    Optional<Category> findWithProductsById(int id);
+
+    @Query("select new com.example.restwebservice.dto.views.CategoryView(c.id, c.name, c.imagePath, c.rating) from Category c")
+    Slice<CategoryView> findAllViews(Pageable pageable);
+
+    @Query("select new com.example.restwebservice.dto.views.CategoryView(c.id, c.name, c.imagePath, c.rating) from Category c where c.id in :ids")
+    List<CategoryView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.restwebservice.dto.views.CategoryLineView(c.id, c.name, c.imagePath, c.rating, "
+            + "p.id, p.name, p.description, p.price, p.imagePath) from Category c left join c.productList p order by c.id, p.id")
+    Stream<CategoryLineView> streamLineViews();
+
+    @Query("select new com.example.restwebservice.search.IndexedCategory(c.id, c.name) from Category c")
+    List<IndexedCategory> findAllIndexed();
 }
@@ -0,0 +1,83 @@
+package com.example.restwebservice.repositories;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque "after" token of keyset pagination. The token carries the sort key values and the id
+ * of the last returned row, so the next page is read with {@code WHERE (sortKey, id) > (?, ?)}.
+ * A {@code null} value is written as the bare key, so it is told apart from an empty string.
+ */
+public final class KeysetCursor {
+
+    private static final DefaultConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+    static {
+        CONVERSION_SERVICE.addConverter(String.class, LocalDate.class, LocalDate::parse);
+    }
+
+    private KeysetCursor() {
+    }
+
+    public static KeysetScrollPosition position(String after, Class<?> entityType, Sort sort) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(decode(after, entityType, sort));
+    }
+
+    public static Map<String, Object> decode(String after, Class<?> entityType, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            for (String pair : decoded.split("&")) {
+                String[] keyValue = pair.split("=", 2);
+                String key = URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8);
+                Field field = ReflectionUtils.findField(entityType, key);
+                if (field == null) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                keys.put(key, keyValue.length == 1 ? null
+                        : CONVERSION_SERVICE.convert(URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8), field.getType()));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        Set<String> properties = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!keys.keySet().equals(properties)) {
+            throw new IllegalArgumentException("Cursor does not match sort parameter");
+        }
+        return keys;
+    }
+
+    public static String encode(Map<String, ?> keys) {
+        String value = keys.entrySet().stream()
+                .map(e -> e.getValue() == null ? URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8)
+                        : URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(String.valueOf(e.getValue()), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        return encode(((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys());
+    }
+}
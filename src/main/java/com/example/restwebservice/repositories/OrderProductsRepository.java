@@ -0,0 +1,12 @@
+package com.example.restwebservice.repositories;
+
+import java.util.Map;
+
+/**
+ * Writes {@code orders_products} rows directly, one row per distinct product with its quantity,
+ * bypassing the {@code Order.lines} collection.
+ */
+public interface OrderProductsRepository {
+
+    void insertLines(int orderId, Map<Integer, Integer> quantities);
+}
@@ -0,0 +1,21 @@
+package com.example.restwebservice.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+public class OrderProductsRepositoryImpl implements OrderProductsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertLines(int orderId, Map<Integer, Integer> quantities) {
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> rows.add(new Object[]{orderId, productId, quantity}));
+        jdbcTemplate.batchUpdate("INSERT INTO orders_products (order_id, product_id, quantity) VALUES (?, ?, ?)", rows);
+    }
+}
@@ -1,10 +1,52 @@
 package com.example.restwebservice.repositories;
 
+import com.example.restwebservice.dto.views.OrderLineView;
+import com.example.restwebservice.dto.views.OrderProductView;
+import com.example.restwebservice.dto.views.OrderView;
 import com.example.restwebservice.entities.Order;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Integer> {
-    Page<Order> findAllByUserId(int id, Pageable paging);
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface OrderRepository extends JpaRepository<Order, Integer>, JpaSpecificationExecutor<Order>, OrderProductsRepository {
+    Slice<Order> findAllByUserId(int id, Pageable paging);
+
+    long countByUserId(int userId);
+
+    @Query("select o from Order o left join fetch o.lines l left join fetch l.product where o.id = :id")
+    Optional<Order> findWithLinesById(@Param("id") int id);
+
+    @Query("select new com.example.restwebservice.dto.views.OrderView(o.id, o.price, o.date, o.user.id) from Order o "
+            + "where o.user.id in :userIds order by o.id")
+    List<OrderView> findViewsByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    @Query("select new com.example.restwebservice.dto.views.OrderProductView(o.id, p.id, p.name, p.description, p.price, "
+            + "p.category.id, p.imagePath, l.quantity) from Order o join o.lines l join l.product p where o.user.id in :userIds")
+    List<OrderProductView> findProductViewsByUserIdIn(@Param("userIds") Collection<Integer> userIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.restwebservice.dto.views.OrderLineView(o.id, o.price, o.date, o.user.id, "
+            + "p.id, p.name, p.description, p.price, p.category.id, p.imagePath, l.quantity) from Order o left join o.lines l "
+            + "left join l.product p "
+            + "where o.user.id = :userId and (:from is null or o.date >= :from) and (:to is null or o.date <= :to) "
+            + "order by o.id, p.id")
+    Stream<OrderLineView> streamLineViews(@Param("userId") int userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    static Specification<Order> hasUserId(int userId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("user").get("id"), userId);
+    }
 }
@@ -1,11 +1,49 @@
 package com.example.restwebservice.repositories;
 
+import com.example.restwebservice.dto.views.ProductView;
 import com.example.restwebservice.entities.Product;
-import org.springframework.data.domain.Page;
+import com.example.restwebservice.search.IndexedProduct;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
-    Page<Product> findAllByCategoryId(int categoryId, Pageable pageable);
+    Slice<Product> findAllByCategoryId(int categoryId, Pageable pageable);
+
+    long countByCategoryId(int categoryId);
+
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p")
+    Slice<ProductView> findAllViews(Pageable pageable);
+
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p where p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") int id);
+
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p where p.id in :ids")
+    List<ProductView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p where p.category.id = :categoryId")
+    Slice<ProductView> findViewsByCategoryId(@Param("categoryId") int categoryId, Pageable pageable);
+
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p where p.category.id in :categoryIds order by p.id")
+    List<ProductView> findViewsByCategoryIdIn(@Param("categoryIds") Collection<Integer> categoryIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.restwebservice.dto.views.ProductView(p.id, p.name, p.description, p.price, p.category.id, p.imagePath) from Product p "
+            + "where :categoryId is null or p.category.id = :categoryId order by p.id")
+    Stream<ProductView> streamViews(@Param("categoryId") Integer categoryId);
+
+    @Query("select new com.example.restwebservice.search.IndexedProduct(p.id, p.name, p.description, p.price, p.category.id) from Product p")
+    List<IndexedProduct> findAllIndexed();
 }
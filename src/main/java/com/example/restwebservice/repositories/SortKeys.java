@@ -0,0 +1,33 @@
+package com.example.restwebservice.repositories;
+
+import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.entities.Order;
+import com.example.restwebservice.entities.Product;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sort parameters accepted by the list endpoints, per entity. Every key is backed by an index
+ * ending in {@code id} (see {@code V1_5__createSortIndexes.sql}), so sorted pages are read in
+ * index order instead of sorting the table. Ties are broken by id, which keeps offset and keyset
+ * pages stable.
+ */
+public final class SortKeys {
+
+    private static final Map<Class<?>, Set<String>> KEYS = Map.of(
+            Product.class, Set.of("id", "name", "price"),
+            Category.class, Set.of("id", "name", "rating"),
+            Order.class, Set.of("id", "date", "price"));
+
+    private SortKeys() {
+    }
+
+    public static Sort sort(Class<?> entityType, String param) {
+        if (!KEYS.getOrDefault(entityType, Set.of()).contains(param)) {
+            throw new IllegalArgumentException(String.format("Unsupported sort parameter %s", param));
+        }
+        return "id".equals(param) ? Sort.by("id").ascending() : Sort.by(param).ascending().and(Sort.by("id").ascending());
+    }
+}
@@ -1,10 +1,44 @@
 package com.example.restwebservice.repositories;
 
+import com.example.restwebservice.dto.views.RoleView;
+import com.example.restwebservice.dto.views.UserView;
 import com.example.restwebservice.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
+    @EntityGraph("User.roles")
     Optional<User> findByEmail(String login);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    void updatePassword(@Param("id") int id, @Param("password") String password);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Integer> findIdByEmail(@Param("email") String email);
+
+    @EntityGraph("User.roles")
+    Optional<User> findWithRolesById(int id);
+
+    @Query("select new com.example.restwebservice.dto.views.UserView(u.id, u.name, u.surname, u.birthday, u.email, u.password, "
+            + "u.balance, u.address, u.phoneNumber) from User u")
+    Slice<UserView> findAllViews(Pageable pageable);
+
+    @Query("select new com.example.restwebservice.dto.views.UserView(u.id, u.name, u.surname, u.birthday, u.email, u.password, "
+            + "u.balance, u.address, u.phoneNumber) from User u where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select new com.example.restwebservice.dto.views.RoleView(u.id, r.id, r.name) from User u join u.roles r where u.id in :ids")
+    List<RoleView> findRoleViewsByUserIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,4 @@
+package com.example.restwebservice.search;
+
+public record IndexedCategory(int id, String name) {
+}
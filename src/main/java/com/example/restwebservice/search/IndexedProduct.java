@@ -0,0 +1,4 @@
+package com.example.restwebservice.search;
+
+public record IndexedProduct(int id, String name, String description, int price, int categoryId) {
+}
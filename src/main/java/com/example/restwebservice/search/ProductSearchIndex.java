@@ -0,0 +1,260 @@
+package com.example.restwebservice.search;
+
+import com.example.restwebservice.cache.SearchResultCache;
+import com.example.restwebservice.dto.SearchParamsDto;
+import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.repositories.CategoryRepository;
+import com.example.restwebservice.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Tokenized inverted index over product name, description and category name.
+ * Search key and category name tokens are matched as prefixes of indexed tokens,
+ * all tokens of a query have to match.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Map<String, Comparator<IndexedProduct>> SORT_KEYS = Map.of(
+            "id", Comparator.comparingInt(IndexedProduct::id),
+            "name", Comparator.comparing(IndexedProduct::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "price", Comparator.comparingInt(IndexedProduct::price));
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final SearchResultCache searchResultCache;
+
+    private final Map<Integer, IndexedProduct> products = new ConcurrentHashMap<>();
+    private final Map<Integer, String> categoryNames = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Integer>> productTokens = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<String, Set<Integer>> categoryTokens = new ConcurrentSkipListMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        products.clear();
+        categoryNames.clear();
+        productTokens.clear();
+        categoryTokens.clear();
+        categoryRepository.findAllIndexed().forEach(c -> putCategory(c.id(), c.name()));
+        productRepository.findAllIndexed().forEach(this::put);
+        ready = true;
+        searchResultCache.invalidateAll();
+        log.info("Product search index built: {} products, {} categories in {} ms",
+                products.size(), categoryNames.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void index(Product product) {
+        Category category = product.getCategory();
+        if (!categoryNames.containsKey(category.getId())) {
+            putCategory(category.getId(), category.getName());
+        }
+        put(new IndexedProduct(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), category.getId()));
+    }
+
+    public synchronized void remove(int productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous != null) {
+            removeTokens(productTokens, productTokens(previous), productId);
+        }
+    }
+
+    public synchronized void putCategory(int categoryId, String name) {
+        String previous = categoryNames.put(categoryId, name);
+        if (previous != null) {
+            removeTokens(categoryTokens, tokenize(previous), categoryId);
+        }
+        addTokens(categoryTokens, tokenize(name), categoryId);
+    }
+
+    public synchronized void removeCategory(int categoryId) {
+        String previous = categoryNames.remove(categoryId);
+        if (previous != null) {
+            removeTokens(categoryTokens, tokenize(previous), categoryId);
+        }
+        products.values().stream()
+                .filter(p -> p.categoryId() == categoryId)
+                .map(IndexedProduct::id)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public List<Integer> search(SearchParamsDto searchParamsDto, int pageNumber, int pageSize, String param) {
+        long offset = (long) pageNumber * pageSize;
+        return top(matches(searchParamsDto), comparator(param), offset + pageSize).stream()
+                .skip(offset)
+                .map(IndexedProduct::id)
+                .toList();
+    }
+
+    public List<IndexedProduct> searchAfter(SearchParamsDto searchParamsDto, Map<String, Object> after, int limit, String param) {
+        Comparator<IndexedProduct> comparator = comparator(param);
+        IndexedProduct last = after == null ? null : new IndexedProduct((Integer) after.get("id"),
+                (String) after.get("name"), (String) after.get("description"),
+                (Integer) after.getOrDefault("price", 0), 0);
+        return top(matches(searchParamsDto).filter(p -> last == null || comparator.compare(p, last) > 0), comparator, limit);
+    }
+
+    public static Map<String, Object> sortKeys(IndexedProduct product, String param) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        switch (param) {
+            case "name" -> keys.put(param, product.name());
+            case "price" -> keys.put(param, product.price());
+            default -> {
+            }
+        }
+        keys.put("id", product.id());
+        return keys;
+    }
+
+    public static Comparator<IndexedProduct> comparator(String param) {
+        Comparator<IndexedProduct> comparator = SORT_KEYS.get(param);
+        if (comparator == null) {
+            throw new IllegalArgumentException(String.format("Unsupported sort parameter %s", param));
+        }
+        return comparator.thenComparingInt(IndexedProduct::id);
+    }
+
+    /**
+     * Ids of the categories a {@code categoryName} filter selects, or {@code null} when it does not filter.
+     */
+    public Set<Integer> matchingCategoryIds(String categoryName) {
+        String[] tokens = tokenize(categoryName);
+        return tokens.length > 0 ? intersect(categoryTokens, tokens) : null;
+    }
+
+    /**
+     * The first {@code k} products in {@code comparator} order, kept in a max-heap of size {@code k}
+     * so a page costs O(n log k) instead of sorting every match.
+     */
+    private static List<IndexedProduct> top(Stream<IndexedProduct> products, Comparator<IndexedProduct> comparator, long k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<IndexedProduct> heap = new PriorityQueue<>(comparator.reversed());
+        products.forEach(product -> {
+            if (heap.size() < k) {
+                heap.add(product);
+            } else if (comparator.compare(product, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(product);
+            }
+        });
+        List<IndexedProduct> top = new ArrayList<>(heap);
+        top.sort(comparator);
+        return top;
+    }
+
+    private Stream<IndexedProduct> matches(SearchParamsDto params) {
+        Collection<IndexedProduct> candidates;
+        String[] keyTokens = tokenize(params.getSearchKey());
+        if (keyTokens.length > 0) {
+            Set<Integer> ids = intersect(productTokens, keyTokens);
+            candidates = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                IndexedProduct product = products.get(id);
+                if (product != null) {
+                    candidates.add(product);
+                }
+            }
+        } else {
+            candidates = products.values();
+        }
+
+        Set<Integer> categoryIds = matchingCategoryIds(params.getCategoryName());
+        return candidates.stream()
+                .filter(p -> params.getPriceFrom() <= 0 || p.price() >= params.getPriceFrom())
+                .filter(p -> params.getPriceTo() <= 0 || p.price() <= params.getPriceTo())
+                .filter(p -> categoryIds == null || categoryIds.contains(p.categoryId()));
+    }
+
+    private void put(IndexedProduct product) {
+        IndexedProduct previous = products.put(product.id(), product);
+        if (previous != null) {
+            removeTokens(productTokens, productTokens(previous), previous.id());
+        }
+        addTokens(productTokens, productTokens(product), product.id());
+    }
+
+    private static Set<Integer> intersect(ConcurrentNavigableMap<String, Set<Integer>> index, String[] tokens) {
+        Set<Integer> result = null;
+        for (String token : tokens) {
+            Set<Integer> ids = new HashSet<>();
+            index.subMap(token, true, token + Character.MAX_VALUE, true).values().forEach(ids::addAll);
+            if (result == null) {
+                result = ids;
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? Set.of() : result;
+    }
+
+    private static String[] productTokens(IndexedProduct product) {
+        String[] name = tokenize(product.name());
+        String[] description = tokenize(product.description());
+        String[] tokens = Arrays.copyOf(name, name.length + description.length);
+        System.arraycopy(description, 0, tokens, name.length, description.length);
+        return tokens;
+    }
+
+    private static void addTokens(Map<String, Set<Integer>> index, String[] tokens, int id) {
+        for (String token : tokens) {
+            index.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static void removeTokens(Map<String, Set<Integer>> index, String[] tokens, int id) {
+        for (String token : tokens) {
+            index.computeIfPresent(token, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
@@ -1,38 +1,61 @@
 package com.example.restwebservice.services;
 
 import com.example.restwebservice.dto.CartDto;
-import com.example.restwebservice.dto.converters.ProductConverter;
-import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.dto.CartLineDto;
+import com.example.restwebservice.dto.views.ProductView;
 import com.example.restwebservice.repositories.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @Slf4j
 @AllArgsConstructor
 public class CartService {
 
     private final ProductRepository productRepository;
-    private final ProductConverter productConverter;
+    private final CartStore cartStore;
 
-    public CartDto addProduct(int id, CartDto cartDto) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id: %d not found", id)));
-        cartDto.addProduct(productConverter.toDto(product));
-        return cartDto;
+    public CartDto getCart(String login) {
+        return cartStore.get(login);
     }
 
-    public CartDto removeProduct(int id, CartDto cartDto) {
-        Product product = productRepository.findById(id)
+    public CartDto addProduct(String login, int id, int quantity) {
+        ProductView product = productRepository.findViewById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id: %d not found", id)));
-        cartDto.removeProduct(productConverter.toDto(product));
-        return cartDto;
+        return cartStore.add(login, product.id(), product.name(), product.price(), quantity);
+    }
+
+    /**
+     * Adds several products in one lookup. Nothing is added when any of the ids is unknown.
+     */
+    public CartDto addProducts(String login, Map<Integer, Integer> quantities) {
+        Map<Integer, ProductView> products = productRepository.findViewsByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+        List<Integer> missingIds = quantities.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Products with ids %s not found", missingIds));
+        }
+        return cartStore.addAll(login, quantities.entrySet().stream()
+                .map(e -> {
+                    ProductView product = products.get(e.getKey());
+                    return new CartLineDto(product.id(), product.name(), product.price(), e.getValue());
+                })
+                .toList());
+    }
+
+    public CartDto removeProduct(String login, int id, int quantity) {
+        return cartStore.remove(login, id, quantity);
     }
 
-    public CartDto clear(CartDto cartDto) {
-        cartDto.clear();
-        return cartDto;
+    public CartDto clear(String login) {
+        cartStore.clear(login);
+        return new CartDto();
     }
 }
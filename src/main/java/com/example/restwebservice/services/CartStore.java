@@ -0,0 +1,341 @@
+package com.example.restwebservice.services;
+
+import com.example.restwebservice.dto.CartDto;
+import com.example.restwebservice.dto.CartLineDto;
+import com.example.restwebservice.metrics.MetricsSource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Server-side carts keyed by user login. Carts are spread over independent shards, each with its
+ * own share of {@code cart.store.max-carts}. A shard keeps its carts in access order under its own
+ * lock, so a full shard drops its least recently used cart without scanning the others. A dropped
+ * cart is discarded under its own lock and an update that reaches it afterwards starts over on the
+ * cart now stored for the login, so no update lands in a cart that is no longer stored.
+ * Carts idle for longer than {@code cart.store.ttl} are swept, and when {@code cart.store.snapshot-path}
+ * is set the carts are written there periodically and on shutdown and read back on startup.
+ * A line holds at most {@link #MAX_QUANTITY} items; an add past it is rejected as a whole.
+ */
+@Component
+@Slf4j
+public class CartStore implements MetricsSource {
+
+    public static final int MAX_QUANTITY = 1000;
+
+    private final Map<String, Cart>[] shards;
+    private final int maxCartsPerShard;
+    private final long ttlMillis;
+    private final Path snapshotPath;
+    private final ObjectMapper objectMapper;
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public CartStore(@Value("${cart.store.shards:16}") int shards,
+                     @Value("${cart.store.max-carts:100000}") int maxCarts,
+                     @Value("${cart.store.ttl:PT24H}") Duration ttl,
+                     @Value("${cart.store.snapshot-path:}") String snapshotPath,
+                     ObjectMapper objectMapper) {
+        int shardCount = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.shards = new Map[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+        this.maxCartsPerShard = Math.max(1, maxCarts / shardCount);
+        this.ttlMillis = ttl.toMillis();
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.objectMapper = objectMapper;
+    }
+
+    public CartDto get(String login) {
+        Cart cart = find(login);
+        return cart == null ? new CartDto() : cart.toDto();
+    }
+
+    public CartDto add(String login, int productId, String name, int price, int quantity) {
+        return update(login, true, cart -> cart.add(productId, name, price, quantity));
+    }
+
+    public CartDto addAll(String login, Collection<CartLineDto> lines) {
+        return update(login, true, cart -> cart.addAll(lines));
+    }
+
+    public CartDto remove(String login, int productId, int quantity) {
+        return update(login, false, cart -> cart.remove(productId, quantity));
+    }
+
+    public void clear(String login) {
+        Map<String, Cart> shard = shard(login);
+        synchronized (shard) {
+            Cart cart = shard.remove(login);
+            if (cart != null) {
+                cart.discard();
+            }
+        }
+    }
+
+    /**
+     * Takes the lines of an ordered snapshot out of the cart, keeping whatever was added after
+     * the snapshot was read. An emptied cart stays in place until it is swept, so an add racing
+     * with this call never lands in a cart that is no longer stored.
+     */
+    public CartDto removeOrdered(String login, CartDto ordered) {
+        return update(login, false, cart -> cart.removeAll(ordered.getLines()));
+    }
+
+    /**
+     * Walks each shard from its least recently used cart and stops at the first one still in use,
+     * so a sweep only visits the carts it drops.
+     */
+    @Scheduled(fixedDelayString = "${cart.store.sweep-interval:PT5M}")
+    public void removeIdle() {
+        long deadline = System.currentTimeMillis() - ttlMillis;
+        for (Map<String, Cart> shard : shards) {
+            synchronized (shard) {
+                Iterator<Cart> eldest = shard.values().iterator();
+                while (eldest.hasNext() && eldest.next().discardIfIdleBefore(deadline)) {
+                    eldest.remove();
+                    expired.increment();
+                }
+            }
+        }
+        if (snapshotPath != null) {
+            saveSnapshot();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Cart> shard : shards) {
+            synchronized (shard) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String metricsName() {
+        return "cart";
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        return Map.of("carts", size(), "evicted", evicted.sum(), "expired", expired.sum());
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            Map<String, CartDto> carts = objectMapper.readValue(snapshotPath.toFile(), new TypeReference<>() {
+            });
+            carts.forEach((login, dto) -> cart(login).addAll(dto.getLines()));
+            log.info("Restored {} carts from {}", carts.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not read cart snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    void saveSnapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Map<String, Cart> stored = new LinkedHashMap<>();
+        for (Map<String, Cart> shard : shards) {
+            synchronized (shard) {
+                stored.putAll(shard);
+            }
+        }
+        Map<String, CartDto> carts = new LinkedHashMap<>();
+        stored.forEach((login, cart) -> carts.put(login, cart.toDto()));
+        try {
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), carts);
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write cart snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private Map<String, Cart> shard(String login) {
+        int h = login.hashCode();
+        return shards[(h ^ (h >>> 16)) & (shards.length - 1)];
+    }
+
+    private Cart find(String login) {
+        Map<String, Cart> shard = shard(login);
+        synchronized (shard) {
+            return shard.get(login);
+        }
+    }
+
+    private Cart cart(String login) {
+        Map<String, Cart> shard = shard(login);
+        synchronized (shard) {
+            Cart cart = shard.get(login);
+            if (cart == null) {
+                makeRoom(shard);
+                cart = new Cart();
+                shard.put(login, cart);
+            }
+            return cart;
+        }
+    }
+
+    /**
+     * Applies an update to the cart of the login, looking the cart up again when the update found
+     * it discarded. Without {@code create} a missing cart is answered with an empty one.
+     */
+    private CartDto update(String login, boolean create, Function<Cart, CartDto> update) {
+        while (true) {
+            Cart cart = create ? cart(login) : find(login);
+            if (cart == null) {
+                return new CartDto();
+            }
+            CartDto updated = update.apply(cart);
+            if (updated != null) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Drops least recently used carts of a full shard, called with the shard locked. A cart used
+     * while its lock was awaited is kept and the next one is tried; when every cart is in use the
+     * shard goes over its bound until the next add.
+     */
+    private void makeRoom(Map<String, Cart> shard) {
+        Iterator<Cart> eldest = shard.values().iterator();
+        while (shard.size() >= maxCartsPerShard && eldest.hasNext()) {
+            Cart cart = eldest.next();
+            if (cart.discardIfIdleBefore(cart.lastAccess + 1)) {
+                eldest.remove();
+                evicted.increment();
+            }
+        }
+    }
+
+    /**
+     * Quantity per product plus running totals, so adding or removing a line never walks the cart.
+     * Updates answer {@code null} once the cart was discarded from its shard.
+     */
+    private static final class Cart {
+        private final Map<Integer, CartLineDto> lines = new LinkedHashMap<>();
+        private long totalPrice;
+        private long totalQuantity;
+        private boolean discarded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized CartDto add(int productId, String name, int price, int quantity) {
+            if (discarded) {
+                return null;
+            }
+            checkQuantity(productId, quantity);
+            put(productId, name, price, quantity);
+            return toDto();
+        }
+
+        synchronized CartDto addAll(Collection<CartLineDto> added) {
+            if (discarded) {
+                return null;
+            }
+            Map<Integer, Integer> quantities = new LinkedHashMap<>();
+            added.forEach(l -> quantities.merge(l.getProductId(), l.getQuantity(), Integer::sum));
+            quantities.forEach(this::checkQuantity);
+            added.forEach(l -> put(l.getProductId(), l.getName(), l.getPrice(), l.getQuantity()));
+            return toDto();
+        }
+
+        synchronized CartDto remove(int productId, int quantity) {
+            if (discarded) {
+                return null;
+            }
+            take(productId, quantity);
+            return toDto();
+        }
+
+        synchronized CartDto removeAll(Collection<CartLineDto> removed) {
+            if (discarded) {
+                return null;
+            }
+            removed.forEach(l -> take(l.getProductId(), l.getQuantity()));
+            return toDto();
+        }
+
+        /**
+         * Discards the cart unless it was used at or after {@code deadline}, checked under the
+         * cart's lock so an update in progress either finishes first or finds the cart discarded.
+         */
+        synchronized boolean discardIfIdleBefore(long deadline) {
+            if (lastAccess >= deadline) {
+                return false;
+            }
+            discard();
+            return true;
+        }
+
+        synchronized void discard() {
+            discarded = true;
+        }
+
+        private void checkQuantity(int productId, int added) {
+            CartLineDto line = lines.get(productId);
+            long quantity = (long) added + (line == null ? 0 : line.getQuantity());
+            if (added <= 0 || quantity > MAX_QUANTITY) {
+                throw new IllegalArgumentException(String.format("Quantity of product %d must be between 1 and %d",
+                        productId, MAX_QUANTITY));
+            }
+        }
+
+        private void put(int productId, String name, int price, int quantity) {
+            CartLineDto line = lines.computeIfAbsent(productId, id -> new CartLineDto(id, name, price, 0));
+            line.setQuantity(line.getQuantity() + quantity);
+            totalPrice = Math.addExact(totalPrice, Math.multiplyExact((long) line.getPrice(), quantity));
+            totalQuantity += quantity;
+        }
+
+        private void take(int productId, int quantity) {
+            CartLineDto line = lines.get(productId);
+            if (line != null && quantity > 0) {
+                int removed = Math.min(quantity, line.getQuantity());
+                line.setQuantity(line.getQuantity() - removed);
+                if (line.getQuantity() == 0) {
+                    lines.remove(productId);
+                }
+                totalPrice -= (long) line.getPrice() * removed;
+                totalQuantity -= removed;
+            }
+        }
+
+        synchronized CartDto toDto() {
+            lastAccess = System.currentTimeMillis();
+            List<CartLineDto> copy = new ArrayList<>(lines.size());
+            lines.values().forEach(l -> copy.add(new CartLineDto(l.getProductId(), l.getName(), l.getPrice(), l.getQuantity())));
+            return new CartDto(copy, totalPrice, totalQuantity);
+        }
+    }
+}
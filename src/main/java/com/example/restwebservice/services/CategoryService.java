@@ -1,6 +1,9 @@
 package com.example.restwebservice.services;
 
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
 import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,16 +16,25 @@ public interface CategoryService {
 
     List<CategoryDto> getAllCategories(int pageNumber, int pageSize, String param);
 
+    long countCategories();
+
+    CursorPageDto<CategoryDto> getAllCategoriesAfter(String after, int pageSize, String param);
+
     CategoryDto getCategoryById(int id);
 
+    BulkResultDto<CategoryDto> getCategoriesByIds(List<Integer> ids);
+
     CategoryDto createCategory(CategoryDto categoryDto);
 
     CategoryDto updateCategory(CategoryDto categoryDto);
 
     void deleteCategory(int id);
 
-    List<CategoryDto> uploadCategoriesFromFile(MultipartFile file) throws IOException;
+    ImportResultDto uploadCategoriesFromFile(MultipartFile file) throws IOException;
 
     void downloadCategoriesToFile(List<CategoryDto> categories, HttpServletResponse response)
             throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException;
+
+    void exportCategories(boolean gzip, HttpServletResponse response)
+            throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException;
 }
@@ -3,26 +3,61 @@ package com.example.restwebservice.services;
 import com.example.restwebservice.entities.CustomUserDetails;
 import com.example.restwebservice.entities.User;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Transactional
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserService userService;
+    private final long cacheTtlMillis;
+    private final int cacheMaxSize;
+    private final Map<String, CachedUserDetails> cache = new ConcurrentHashMap<>();
+
+    public CustomUserDetailsService(UserService userService,
+                                    @Value("${security.user-details.cache-ttl:0s}") Duration cacheTtl,
+                                    @Value("${security.user-details.cache-max-size:10000}") int cacheMaxSize) {
+        this.userService = userService;
+        this.cacheTtlMillis = cacheTtl.toMillis();
+        this.cacheMaxSize = cacheMaxSize;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (cacheTtlMillis <= 0) {
+            return load(username);
+        }
+        long now = System.currentTimeMillis();
+        CachedUserDetails cached = cache.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.userDetails();
+        }
+        UserDetails userDetails = load(username);
+        if (userDetails != null) {
+            if (cache.size() >= cacheMaxSize) {
+                cache.values().removeIf(c -> c.expiresAt() <= now);
+            }
+            if (cache.size() < cacheMaxSize) {
+                cache.put(username, new CachedUserDetails(userDetails, now + cacheTtlMillis));
+            }
+        }
+        return userDetails;
+    }
+
+    private UserDetails load(String username) {
         Optional<User> userEntity = userService.findByLogin(username);
         return userEntity.map(CustomUserDetails::fromUserEntityToCustomUserDetails).orElse(null);
     }
-}
-
 
+    private record CachedUserDetails(UserDetails userDetails, long expiresAt) {
+    }
+}
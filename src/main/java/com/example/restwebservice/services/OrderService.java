@@ -1,20 +1,28 @@
 package com.example.restwebservice.services;
 
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.csv.CsvExporter;
+import com.example.restwebservice.csv.CsvImporter;
 import com.example.restwebservice.dto.CartDto;
+import com.example.restwebservice.dto.CartLineDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.dto.OrderDto;
 import com.example.restwebservice.dto.ProductDto;
-import com.example.restwebservice.dto.UserDto;
 import com.example.restwebservice.dto.converters.OrderConverter;
 import com.example.restwebservice.dto.converters.ProductConverter;
-import com.example.restwebservice.dto.converters.UserConverter;
+import com.example.restwebservice.dto.views.OrderLineView;
+import com.example.restwebservice.dto.views.OrderView;
+import com.example.restwebservice.dto.views.ProductView;
 import com.example.restwebservice.entities.Order;
 import com.example.restwebservice.entities.User;
 import com.example.restwebservice.exceptions.CartIsEmptyException;
+import com.example.restwebservice.repositories.KeysetCursor;
 import com.example.restwebservice.repositories.OrderRepository;
+import com.example.restwebservice.repositories.ProductRepository;
+import com.example.restwebservice.repositories.SortKeys;
 import com.example.restwebservice.repositories.UserRepository;
 import com.opencsv.CSVWriter;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.StatefulBeanToCsv;
 import com.opencsv.bean.StatefulBeanToCsvBuilder;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
@@ -23,22 +31,26 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
 import java.io.Writer;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -47,37 +59,76 @@ import java.util.List;
 public class OrderService {
 
     private final UserRepository userRepository;
-    private final UserConverter userConverter;
     private final ProductConverter productConverter;
     private final OrderConverter orderConverter;
     private final OrderRepository orderRepository;
+    private final CsvImporter csvImporter;
+    private final CsvExporter csvExporter;
+    private final ProductRepository productRepository;
+    private final CartStore cartStore;
+    private final TransactionTemplate transactionTemplate;
+    private final CountCache countCache;
 
-    public OrderDto create(UserDto userDto, CartDto cartDto) throws CartIsEmptyException {
-        if (cartDto.getProducts() == null) {
+    /**
+     * Places an order for the cart of {@code login} in one transaction: prices are read with one
+     * batched lookup, and the lines are written in one JDBC batch of one {@code orders_products} row
+     * per distinct product with its quantity. The user row is referenced, never loaded or rewritten. Only after the transaction
+     * commits are the ordered lines taken out of the cart, so lines added meanwhile stay in it.
+     */
+    public OrderDto create(String login) throws CartIsEmptyException {
+        CartDto cartDto = cartStore.get(login);
+        if (cartDto.isEmpty()) {
             throw new CartIsEmptyException("Cart is empty");
         }
-        Order order = Order.builder()
-                .price(cartDto.getTotalPrice())
-                .date(LocalDate.now())
-                .user(userConverter.fromDto(userDto))
-                .productList(cartDto.getProducts().stream().map(productConverter::fromDto).toList())
-                .build();
-        order = orderRepository.save(order);
-        OrderDto orderDto = orderConverter.toDto(order);
-        userDto.getOrders().add(orderDto);
-        userRepository.save(userConverter.fromDto(userDto));
-        cartDto.clear();
-        cartDto.setTotalPrice(0);
+        Map<Integer, Integer> quantities = cartDto.getLines().stream()
+                .collect(Collectors.toMap(CartLineDto::getProductId, CartLineDto::getQuantity, Integer::sum, LinkedHashMap::new));
+        OrderDto orderDto = transactionTemplate.execute(status -> {
+            int userId = userRepository.findIdByEmail(login)
+                    .orElseThrow(() -> new EntityNotFoundException(String.format("User with email %s not found", login)));
+            Map<Integer, ProductView> products = productRepository.findViewsByIdIn(quantities.keySet()).stream()
+                    .collect(Collectors.toMap(ProductView::id, Function.identity()));
+            int price = 0;
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                ProductView product = products.get(line.getKey());
+                if (product == null) {
+                    throw new EntityNotFoundException(String.format("Product with id %d not found", line.getKey()));
+                }
+                price = addLine(price, product.price(), line.getValue());
+            }
+            Order order = orderRepository.saveAndFlush(Order.builder()
+                    .price(price)
+                    .date(LocalDate.now())
+                    .user(userRepository.getReferenceById(userId))
+                    .build());
+            orderRepository.insertLines(order.getId(), quantities);
+            countCache.add(1, CountCache.ordersOfUser(userId));
+            return orderConverter.toDto(new OrderView(order.getId(), price, order.getDate(), userId),
+                    quantities.keySet().stream().map(id -> productConverter.toDto(products.get(id))).toList(),
+                    List.copyOf(quantities.values()));
+        });
+        cartStore.removeOrdered(login, cartDto);
         return orderDto;
     }
 
+    private static int addLine(int price, int productPrice, int quantity) {
+        try {
+            return Math.addExact(price, Math.multiplyExact(productPrice, quantity));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Order price exceeds the supported maximum", e);
+        }
+    }
+
     public OrderDto updateOrder(OrderDto orderDto) {
         Order order = orderRepository.findById(orderDto.getId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Order with id %d not found", orderDto.getId())));
         User user = userRepository.findById(orderDto.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("User with id %d not found", orderDto.getUserId())));
+        if (order.getUser().getId() != user.getId()) {
+            countCache.add(-1, CountCache.ordersOfUser(order.getUser().getId()));
+            countCache.add(1, CountCache.ordersOfUser(user.getId()));
+        }
         order.setUser(user);
-        order.setProductList(orderDto.getProductList().stream().map(productConverter::fromDto).toList());
+        order.setLines(orderConverter.linesFromDto(orderDto));
         order.setPrice(order.getPrice());
         orderRepository.save(order);
         return orderDto;
@@ -87,26 +138,45 @@ public class OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Order with id %d not found", id)));
         orderRepository.delete(order);
+        countCache.add(-1, CountCache.ordersOfUser(order.getUser().getId()));
     }
 
     public OrderDto getOrderById(int id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithLinesById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Order with id %d not found", id)));
         return orderConverter.toDto(order);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByUserId(int id, int pageNumber, int pageSize, String param) {
-        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(param).ascending());
+        Pageable paging = PageRequest.of(pageNumber, pageSize, SortKeys.sort(Order.class, param));
+        Slice<Order> orders = orderRepository.findAllByUserId(id, paging);
+        if (orders.isEmpty() && !userRepository.existsById(id)) {
+            throw new EntityNotFoundException(String.format("User with id %d not found", id));
+        }
+        return orders.getContent().stream().map(orderConverter::toDto).toList();
+    }
+
+    public long countOrdersByUserId(int id) {
+        return countCache.get(CountCache.ordersOfUser(id), () -> orderRepository.countByUserId(id));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<OrderDto> getOrdersByUserIdAfter(int id, String after, int pageSize, String param) {
         userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("User with id %d not found", id)));
-        Page<Order> orders = orderRepository.findAllByUserId(id, paging);
-        return orders.getContent().stream().map(orderConverter::toDto).toList();
+        Sort sort = SortKeys.sort(Order.class, param);
+        Window<Order> window = orderRepository.findBy(OrderRepository.hasUserId(id), query -> query
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(KeysetCursor.position(after, Order.class, sort)));
+        return new CursorPageDto<>(window.getContent().stream().map(orderConverter::toDto).toList(), KeysetCursor.next(window));
     }
 
     public List<ProductDto> getProductByOrderId(int id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithLinesById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Order with id %d not found", id)));
-        return order.getProductList().stream().map(productConverter::toDto).toList();
+        return order.getLines().stream().map(line -> productConverter.toDto(line.getProduct())).toList();
     }
 
     public void downloadOrdersToFile(List<OrderDto> orders, HttpServletResponse response)
@@ -124,22 +194,25 @@ public class OrderService {
         }
     }
 
-    public List<OrderDto> uploadOrdersFromFile(MultipartFile file) throws IOException {
-        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CsvToBean<OrderDto> csvToBean = new CsvToBeanBuilder<OrderDto>(reader)
-                    .withType(OrderDto.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withIgnoreQuotations(true)
-                    .withSeparator(',')
-                    .build();
-            List<OrderDto> ordersDtoList = new ArrayList<>();
-            List<Order> orders = new ArrayList<>();
-            csvToBean.forEach(ordersDtoList::add);
-            for (OrderDto dto : ordersDtoList) {
-                Order o = orderRepository.save(orderConverter.fromDto(dto));
-                orders.add(o);
-            }
-            return orders.stream().map(orderConverter::toDto).toList();
+    @Transactional(readOnly = true)
+    public void exportOrders(int userId, LocalDate from, LocalDate to, boolean gzip, HttpServletResponse response)
+            throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(String.format("User with id %d not found", userId));
+        }
+        try (Stream<OrderLineView> rows = orderRepository.streamLineViews(userId, from, to)) {
+            csvExporter.export(CsvExporter.groupConsecutive(rows, row -> row.order().id(),
+                    group -> {
+                        List<OrderLineView> lines = group.stream().filter(row -> row.product() != null).toList();
+                        return orderConverter.toDto(group.get(0).order(),
+                                lines.stream().map(row -> productConverter.toDto(row.product())).toList(),
+                                lines.stream().map(OrderLineView::quantity).toList());
+                    }), String.format("UserId %d - orders", userId), gzip, response);
         }
     }
+
+    public ImportResultDto uploadOrdersFromFile(MultipartFile file) throws IOException {
+        return csvImporter.importFrom(file.getInputStream(), OrderDto.class, orderConverter::fromDtos,
+                orderRepository, orders -> countCache.invalidatePrefix(CountCache.ORDERS_OF_USERS));
+    }
 }
@@ -1,5 +1,8 @@
 package com.example.restwebservice.services;
 
+import com.example.restwebservice.dto.BulkResultDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.dto.ProductDto;
 import com.example.restwebservice.dto.SearchParamsDto;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
@@ -14,10 +17,18 @@ public interface ProductService {
 
     List<ProductDto> getAllProducts(int pageNumber, int pageSize, String param);
 
+    long countProducts();
+
+    CursorPageDto<ProductDto> getAllProductsAfter(String after, int pageSize, String param);
+
     List<ProductDto> searchProducts(SearchParamsDto searchParamsDto, int pageNumber, int pageSize, String param);
 
+    CursorPageDto<ProductDto> searchProductsAfter(SearchParamsDto searchParamsDto, String after, int pageSize, String param);
+
     List<ProductDto> getProductByCategoryId(int id, int pageNumber, int pageSize);
 
+    long countProductsByCategoryId(int id);
+
     ProductDto createProduct(ProductDto productDto);
 
     void deleteProduct(int id);
@@ -26,7 +37,12 @@ public interface ProductService {
 
     ProductDto getProductById(int id);
 
+    BulkResultDto<ProductDto> getProductsByIds(List<Integer> ids);
+
     void downloadProductsToFile(List<ProductDto> products, HttpServletResponse response) throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException;
 
-    List<ProductDto> uploadProductsFromFile(MultipartFile file) throws IOException;
+    void exportProducts(Integer categoryId, boolean gzip, HttpServletResponse response)
+            throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException;
+
+    ImportResultDto uploadProductsFromFile(MultipartFile file) throws IOException;
 }
@@ -0,0 +1,23 @@
+package com.example.restwebservice.services;
+
+import java.time.Instant;
+
+/**
+ * Current refresh token of every user, one per email. Implementations keep only the token digest.
+ */
+public interface RefreshTokenStore {
+
+    void put(String email, String refreshToken, Instant expiresAt);
+
+    boolean matches(String email, String refreshToken);
+
+    /**
+     * Rotates the token only if the stored one is still {@code expectedToken}, so two concurrent
+     * refreshes with the same token cannot both succeed.
+     */
+    boolean replace(String email, String expectedToken, String newToken, Instant expiresAt);
+
+    void remove(String email);
+
+    void removeExpired();
+}
@@ -1,10 +1,12 @@
 package com.example.restwebservice.services;
 
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.JwtRequest;
 import com.example.restwebservice.dto.JwtResponse;
 import com.example.restwebservice.dto.UserDto;
 import com.example.restwebservice.entities.User;
 import com.example.restwebservice.exceptions.AuthorizationException;
+import com.example.restwebservice.exceptions.ServiceUnavailableException;
 import lombok.NonNull;
 
 import java.util.List;
@@ -12,13 +14,15 @@ import java.util.Optional;
 
 public interface UserService {
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(int pageNumber, int pageSize);
 
     UserDto getUserById(int id);
 
+    BulkResultDto<UserDto> getUsersByIds(List<Integer> ids);
+
     UserDto createUser(UserDto userDto);
 
-    JwtResponse login(@NonNull JwtRequest request) throws AuthorizationException;
+    JwtResponse login(@NonNull JwtRequest request) throws AuthorizationException, ServiceUnavailableException;
 
     JwtResponse getAccessToken(@NonNull String refreshToken) throws AuthorizationException;
 
@@ -1,13 +1,29 @@
 package com.example.restwebservice.services.impl;
 
+import com.example.restwebservice.cache.CatalogCache;
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.cache.SearchResultCache;
+import com.example.restwebservice.csv.CsvExporter;
+import com.example.restwebservice.csv.CsvImporter;
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
+import com.example.restwebservice.dto.ProductDto;
 import com.example.restwebservice.dto.converters.CategoryConverter;
+import com.example.restwebservice.dto.converters.ProductConverter;
+import com.example.restwebservice.dto.views.CategoryLineView;
+import com.example.restwebservice.dto.views.CategoryView;
+import com.example.restwebservice.dto.views.ProductView;
 import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.entities.Product;
 import com.example.restwebservice.repositories.CategoryRepository;
+import com.example.restwebservice.repositories.KeysetCursor;
+import com.example.restwebservice.repositories.ProductRepository;
+import com.example.restwebservice.repositories.SortKeys;
+import com.example.restwebservice.search.ProductSearchIndex;
 import com.example.restwebservice.services.CategoryService;
 import com.opencsv.CSVWriter;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.StatefulBeanToCsv;
 import com.opencsv.bean.StatefulBeanToCsvBuilder;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
@@ -18,17 +34,24 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -37,34 +60,88 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryConverter categoryConverter;
+    private final ProductRepository productRepository;
+    private final ProductConverter productConverter;
+    private final ProductSearchIndex productSearchIndex;
+    private final CsvImporter csvImporter;
+    private final CsvExporter csvExporter;
+    private final CatalogCache catalogCache;
+    private final SearchResultCache searchResultCache;
+    private final CountCache countCache;
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories(int pageNumber, int pageSize, String param) {
-        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(param).ascending());
-        return categoryRepository.findAll(paging).stream().map(categoryConverter::toDto).toList();
+        Pageable paging = PageRequest.of(pageNumber, pageSize, SortKeys.sort(Category.class, param));
+        return withProducts(categoryRepository.findAllViews(paging).getContent());
+    }
+
+    @Override
+    public long countCategories() {
+        return countCache.get(CountCache.CATEGORIES, categoryRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<CategoryDto> getAllCategoriesAfter(String after, int pageSize, String param) {
+        Sort sort = SortKeys.sort(Category.class, param);
+        Window<Category> window = categoryRepository.findBy(Specification.where(null), query -> query
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(KeysetCursor.position(after, Category.class, sort)));
+        return new CursorPageDto<>(window.getContent().stream().map(categoryConverter::toDto).toList(), KeysetCursor.next(window));
     }
 
     @Override
     public CategoryDto getCategoryById(int id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Category with id %d not found", id)));
-        return categoryConverter.toDto(category);
+        return catalogCache.getCategory(id, key -> categoryRepository.findWithProductsById(key)
+                .map(categoryConverter::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Category with id %d not found", key))));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BulkResultDto<CategoryDto> getCategoriesByIds(List<Integer> ids) {
+        return BulkResultDto.of(ids, withProducts(categoryRepository.findViewsByIdIn(ids)), CategoryDto::getId);
+    }
+
+    /**
+     * Products listed with the new category are saved with it and may be new or moved from another
+     * category, so only they and the categories they left or joined are dropped from the caches,
+     * together with the search pages filtered by category name.
+     */
     @Override
     public CategoryDto createCategory(CategoryDto categoryDto) {
         Category category = categoryConverter.fromDto(categoryDto);
+        Set<Integer> categoryIds = new HashSet<>(previousCategories(category.getProductList()));
         category = categoryRepository.save(category);
+        indexCategory(category);
+        List<Product> products = Optional.ofNullable(category.getProductList()).orElse(List.of());
+        categoryIds.add(category.getId());
+        products.stream().map(Product::getCategory).filter(Objects::nonNull).forEach(c -> categoryIds.add(c.getId()));
+        if (!products.isEmpty()) {
+            catalogCache.invalidateProducts(products.stream().map(Product::getId).toList(), categoryIds);
+            searchResultCache.invalidateCategories(categoryIds);
+        }
+        searchResultCache.invalidateCategoryNames();
+        countCache.add(1, CountCache.CATEGORIES);
+        countCache.invalidate(Stream.concat(Stream.of(CountCache.PRODUCTS), categoryIds.stream().map(CountCache::productsInCategory))
+                .toList());
         return categoryConverter.toDto(category);
     }
 
     @Override
+    @Transactional
     public CategoryDto updateCategory(CategoryDto categoryDto) {
         Category category = categoryRepository.findById(categoryDto.getId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Category with id %d not found", categoryDto.getId())));
         category.setName(categoryDto.getName());
         category.setRating(categoryDto.getRating());
-        return categoryConverter.toDto(categoryRepository.save(category));
+        category = categoryRepository.save(category);
+        productSearchIndex.putCategory(category.getId(), category.getName());
+        catalogCache.invalidateCategories(List.of(category.getId()));
+        searchResultCache.invalidateAll();
+        return categoryConverter.toDto(category);
     }
 
     @Override
@@ -72,25 +149,36 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Category with id %d not found", id)));
         categoryRepository.delete(category);
+        productSearchIndex.removeCategory(id);
+        catalogCache.invalidateCategory(id);
+        searchResultCache.invalidateAll();
+        countCache.add(-1, CountCache.CATEGORIES);
+        countCache.invalidate(List.of(CountCache.PRODUCTS, CountCache.productsInCategory(id)));
     }
 
     @Override
-    public List<CategoryDto> uploadCategoriesFromFile(MultipartFile file) throws IOException {
-        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CsvToBean<CategoryDto> csvToBean = new CsvToBeanBuilder<CategoryDto>(reader)
-                    .withType(CategoryDto.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withIgnoreQuotations(true)
-                    .withSeparator(',')
-                    .build();
-            List<CategoryDto> categoryDtoList = new ArrayList<>();
-            List<Category> categories = new ArrayList<>();
-            csvToBean.forEach(categoryDtoList::add);
-            for (CategoryDto dto : categoryDtoList) {
-                Category c = categoryRepository.save(categoryConverter.fromDto(dto));
-                categories.add(c);
-            }
-            return categories.stream().map(categoryConverter::toDto).toList();
+    public ImportResultDto uploadCategoriesFromFile(MultipartFile file) throws IOException {
+        return csvImporter.importFrom(file.getInputStream(), CategoryDto.class,
+                dtos -> dtos.stream().map(categoryConverter::fromDto).toList(),
+                categoryRepository, categories -> {
+                    categories.forEach(this::indexCategory);
+                    catalogCache.invalidateAll();
+                    searchResultCache.invalidateAll();
+                    countCache.invalidate(List.of(CountCache.CATEGORIES, CountCache.PRODUCTS));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCategories(boolean gzip, HttpServletResponse response)
+            throws CsvRequiredFieldEmptyException, CsvDataTypeMismatchException, IOException {
+        try (Stream<CategoryLineView> rows = categoryRepository.streamLineViews()) {
+            csvExporter.export(CsvExporter.groupConsecutive(rows, row -> row.category().id(),
+                    group -> categoryConverter.toDto(group.get(0).category(), group.stream()
+                            .map(CategoryLineView::product)
+                            .filter(Objects::nonNull)
+                            .map(productConverter::toDto)
+                            .toList())), "categories", gzip, response);
         }
     }
 
@@ -107,4 +195,33 @@ public class CategoryServiceImpl implements CategoryService {
             beanToCsv.write(categories);
         }
     }
+
+    private List<CategoryDto> withProducts(List<CategoryView> categories) {
+        if (categories.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, List<ProductDto>> products = productRepository
+                .findViewsByCategoryIdIn(categories.stream().map(CategoryView::id).toList()).stream()
+                .collect(Collectors.groupingBy(ProductView::categoryId,
+                        Collectors.mapping(productConverter::toDto, Collectors.toList())));
+        return categories.stream()
+                .map(c -> categoryConverter.toDto(c, products.getOrDefault(c.id(), List.of())))
+                .toList();
+    }
+
+    private Collection<Integer> previousCategories(List<Product> products) {
+        List<Integer> ids = Optional.ofNullable(products).orElse(List.of()).stream()
+                .map(Product::getId)
+                .filter(id -> id > 0)
+                .distinct()
+                .toList();
+        return ids.isEmpty() ? List.of() : productRepository.findViewsByIdIn(ids).stream().map(ProductView::categoryId).toList();
+    }
+
+    private void indexCategory(Category category) {
+        productSearchIndex.putCategory(category.getId(), category.getName());
+        Optional.ofNullable(category.getProductList()).ifPresent(products -> products.stream()
+                .filter(p -> p.getCategory() != null)
+                .forEach(productSearchIndex::index));
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.restwebservice.services.impl;
+
+import com.example.restwebservice.config.TokenDigest;
+import com.example.restwebservice.services.RefreshTokenStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public InMemoryRefreshTokenStore(@Value("${refresh-token.store.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void put(String email, String refreshToken, Instant expiresAt) {
+        if (entries.size() >= maxEntries && !entries.containsKey(email)) {
+            makeRoom();
+        }
+        entries.put(email, new Entry(TokenDigest.sha256(refreshToken), expiresAt));
+    }
+
+    @Override
+    public boolean matches(String email, String refreshToken) {
+        Entry entry = entries.get(email);
+        return entry != null && entry.isValid(TokenDigest.sha256(refreshToken), Instant.now());
+    }
+
+    @Override
+    public boolean replace(String email, String expectedToken, String newToken, Instant expiresAt) {
+        Entry current = entries.get(email);
+        if (current == null || !current.isValid(TokenDigest.sha256(expectedToken), Instant.now())) {
+            return false;
+        }
+        return entries.replace(email, current, new Entry(TokenDigest.sha256(newToken), expiresAt));
+    }
+
+    @Override
+    public void remove(String email) {
+        entries.remove(email);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${refresh-token.store.sweep-interval:PT10M}")
+    public void removeExpired() {
+        Instant now = Instant.now();
+        entries.values().removeIf(e -> !e.expiresAt().isAfter(now));
+    }
+
+    private synchronized void makeRoom() {
+        removeExpired();
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 100);
+        if (excess > 0) {
+            log.warn("Refresh token store is full, dropping {} tokens closest to expiry", excess);
+            entries.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue(Comparator.comparing(Entry::expiresAt)))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private record Entry(String digest, Instant expiresAt) {
+        boolean isValid(String expectedDigest, Instant now) {
+            return digest.equals(expectedDigest) && expiresAt.isAfter(now);
+        }
+    }
+}
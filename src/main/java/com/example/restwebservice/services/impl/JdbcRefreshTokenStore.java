@@ -0,0 +1,67 @@
+package com.example.restwebservice.services.impl;
+
+import com.example.restwebservice.config.TokenDigest;
+import com.example.restwebservice.services.RefreshTokenStore;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "refresh-token.store", havingValue = "jdbc")
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void put(String email, String refreshToken, Instant expiresAt) {
+        String digest = TokenDigest.sha256(refreshToken);
+        Timestamp expires = Timestamp.from(expiresAt);
+        if (update(email, digest, expires) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO refresh_tokens (email, token_digest, expires_at) VALUES (?, ?, ?)",
+                        email, digest, expires);
+            } catch (DuplicateKeyException e) {
+                update(email, digest, expires);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(String email, String refreshToken) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE email = ? AND token_digest = ? AND expires_at > ?",
+                Integer.class, email, TokenDigest.sha256(refreshToken), Timestamp.from(Instant.now()));
+        return count != null && count > 0;
+    }
+
+    @Override
+    public boolean replace(String email, String expectedToken, String newToken, Instant expiresAt) {
+        return jdbcTemplate.update("UPDATE refresh_tokens SET token_digest = ?, expires_at = ? "
+                        + "WHERE email = ? AND token_digest = ? AND expires_at > ?",
+                TokenDigest.sha256(newToken), Timestamp.from(expiresAt), email,
+                TokenDigest.sha256(expectedToken), Timestamp.from(Instant.now())) == 1;
+    }
+
+    @Override
+    public void remove(String email) {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE email = ?", email);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${refresh-token.store.sweep-interval:PT10M}")
+    public void removeExpired() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE expires_at <= ?", Timestamp.from(Instant.now()));
+    }
+
+    private int update(String email, String digest, Timestamp expires) {
+        return jdbcTemplate.update("UPDATE refresh_tokens SET token_digest = ?, expires_at = ? WHERE email = ?",
+                digest, expires, email);
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.restwebservice.services.impl;
 
+import com.example.restwebservice.cache.CatalogCache;
+import com.example.restwebservice.cache.CountCache;
+import com.example.restwebservice.cache.SearchResultCache;
+import com.example.restwebservice.csv.CsvExporter;
+import com.example.restwebservice.csv.CsvImporter;
+import com.example.restwebservice.dto.BulkResultDto;
+import com.example.restwebservice.dto.CursorPageDto;
+import com.example.restwebservice.dto.ImportResultDto;
 import com.example.restwebservice.dto.ProductDto;
 import com.example.restwebservice.dto.SearchParamsDto;
 import com.example.restwebservice.dto.converters.ProductConverter;
+import com.example.restwebservice.dto.views.ProductView;
 import com.example.restwebservice.entities.Product;
 import com.example.restwebservice.repositories.CategoryRepository;
+import com.example.restwebservice.repositories.KeysetCursor;
 import com.example.restwebservice.repositories.ProductRepository;
 import com.example.restwebservice.repositories.ProductSearchSpecification;
+import com.example.restwebservice.repositories.SortKeys;
+import com.example.restwebservice.search.IndexedProduct;
+import com.example.restwebservice.search.ProductSearchIndex;
 import com.example.restwebservice.services.ProductService;
 import com.opencsv.CSVWriter;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import com.opencsv.bean.StatefulBeanToCsv;
 import com.opencsv.bean.StatefulBeanToCsvBuilder;
 import com.opencsv.exceptions.CsvDataTypeMismatchException;
@@ -18,21 +29,29 @@ import com.opencsv.exceptions.CsvRequiredFieldEmptyException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
 import java.io.Writer;
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -41,57 +60,128 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductConverter productConverter;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CsvImporter csvImporter;
+    private final CsvExporter csvExporter;
+    private final CatalogCache catalogCache;
+    private final SearchResultCache searchResultCache;
+    private final CountCache countCache;
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProductDto> getAllProducts(int pageNumber, int pageSize, String param) {
-        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(param).ascending());
-        return productRepository.findAll(paging).stream().map(productConverter::toDto).toList();
+        Pageable paging = PageRequest.of(pageNumber, pageSize, SortKeys.sort(Product.class, param));
+        return productRepository.findAllViews(paging).stream().map(productConverter::toDto).toList();
+    }
+
+    @Override
+    public long countProducts() {
+        return countCache.get(CountCache.PRODUCTS, productRepository::count);
+    }
+
+    @Override
+    public CursorPageDto<ProductDto> getAllProductsAfter(String after, int pageSize, String param) {
+        return findAllAfter(Specification.where(null), after, pageSize, param);
     }
 
     @Override
     public List<ProductDto> searchProducts(SearchParamsDto searchParamsDto, int pageNumber, int pageSize, String param) {
-        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by(param).ascending());
-        ProductSearchSpecification productSearchSpecification = new ProductSearchSpecification(searchParamsDto);
-        return productRepository.findAll(productSearchSpecification, paging).stream().map(productConverter::toDto).toList();
+        Sort sort = SortKeys.sort(Product.class, param);
+        SearchParamsDto params = SearchResultCache.normalize(searchParamsDto);
+        boolean indexed = productSearchIndex.isReady();
+        Set<Integer> categoryIds = indexed ? productSearchIndex.matchingCategoryIds(params.getCategoryName()) : null;
+        return findAllByIdOrdered(searchResultCache.get(params, pageNumber, pageSize, param, indexed, categoryIds, () -> {
+            if (!indexed) {
+                Window<Product> window = productRepository.findBy(new ProductSearchSpecification(params), query -> query
+                        .sortBy(sort)
+                        .limit(pageSize)
+                        .scroll(ScrollPosition.offset((long) pageNumber * pageSize)));
+                return window.getContent().stream().map(Product::getId).toList();
+            }
+            return productSearchIndex.search(params, pageNumber, pageSize, param);
+        }));
+    }
+
+    @Override
+    public CursorPageDto<ProductDto> searchProductsAfter(SearchParamsDto searchParamsDto, String after, int pageSize, String param) {
+        if (!productSearchIndex.isReady()) {
+            return findAllAfter(new ProductSearchSpecification(searchParamsDto), after, pageSize, param);
+        }
+        Map<String, Object> keys = after == null || after.isBlank() ? null
+                : KeysetCursor.decode(after, Product.class, SortKeys.sort(Product.class, param));
+        List<IndexedProduct> found = productSearchIndex.searchAfter(searchParamsDto, keys, pageSize + 1, param);
+        List<IndexedProduct> page = found.subList(0, Math.min(pageSize, found.size()));
+        String next = found.size() > pageSize
+                ? KeysetCursor.encode(ProductSearchIndex.sortKeys(page.get(page.size() - 1), param))
+                : null;
+        return new CursorPageDto<>(findAllByIdOrdered(page.stream().map(IndexedProduct::id).toList()), next);
     }
 
     @Override
     public List<ProductDto> getProductByCategoryId(int id, int pageNumber, int pageSize) {
-        Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id").ascending());
-        categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Category with id %d not found", id)));
-        Page<Product> products = productRepository.findAllByCategoryId(id, paging);
-        return products.getContent().stream().map(productConverter::toDto).toList();
+        return catalogCache.coalesce(new CategoryPageKey(id, pageNumber, pageSize), () -> {
+            Pageable paging = PageRequest.of(pageNumber, pageSize, Sort.by("id").ascending());
+            Slice<ProductView> products = productRepository.findViewsByCategoryId(id, paging);
+            if (products.isEmpty() && !categoryRepository.existsById(id)) {
+                throw new EntityNotFoundException(String.format("Category with id %d not found", id));
+            }
+            return products.getContent().stream().map(productConverter::toDto).toList();
+        });
+    }
+
+    @Override
+    public long countProductsByCategoryId(int id) {
+        return countCache.get(CountCache.productsInCategory(id), () -> productRepository.countByCategoryId(id));
     }
 
     @Override
     public ProductDto createProduct(ProductDto productDto) {
         Product product = productConverter.fromDto(productDto);
         product = productRepository.save(product);
+        productSearchIndex.index(product);
+        catalogCache.invalidateProduct(product.getId(), product.getCategory().getId());
+        searchResultCache.invalidateCategories(List.of(product.getCategory().getId()));
+        countCache.add(1, CountCache.PRODUCTS, CountCache.productsInCategory(product.getCategory().getId()));
         return productConverter.toDto(product);
     }
 
     @Override
+    @Transactional
     public void deleteProduct(int id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id %d not found", id)));
         productRepository.delete(product);
+        productSearchIndex.remove(id);
+        catalogCache.invalidateProduct(id, product.getCategory().getId());
+        searchResultCache.invalidateCategories(List.of(product.getCategory().getId()));
+        countCache.add(-1, CountCache.PRODUCTS, CountCache.productsInCategory(product.getCategory().getId()));
     }
 
     @Override
+    @Transactional
     public ProductDto updateProduct(ProductDto productDto) {
         Product product = productRepository.findById(productDto.getId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id %d not found", productDto.getId())));
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
-        return productConverter.toDto(productRepository.save(product));
+        product = productRepository.save(product);
+        productSearchIndex.index(product);
+        catalogCache.invalidateProduct(product.getId(), product.getCategory().getId());
+        searchResultCache.invalidateCategories(List.of(product.getCategory().getId()));
+        return productConverter.toDto(product);
     }
 
     @Override
     public ProductDto getProductById(int id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id %d not found", id)));
-        return productConverter.toDto(product);
+        return catalogCache.getProduct(id, key -> productRepository.findViewById(key)
+                .map(productConverter::toDto)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Product with id %d not found", key))));
+    }
+
+    @Override
+    public BulkResultDto<ProductDto> getProductsByIds(List<Integer> ids) {
+        List<ProductDto> products = productRepository.findViewsByIdIn(ids).stream().map(productConverter::toDto).toList();
+        return BulkResultDto.of(ids, products, ProductDto::getId);
     }
 
     @Override
@@ -111,22 +201,75 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<ProductDto> uploadProductsFromFile(MultipartFile file) throws IOException {
-        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CsvToBean<ProductDto> csvToBean = new CsvToBeanBuilder<ProductDto>(reader)
-                    .withType(ProductDto.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .withIgnoreQuotations(true)
-                    .withSeparator(',')
-                    .build();
-            List<ProductDto> productDtoList = new ArrayList<>();
-            List<Product> products = new ArrayList<>();
-            csvToBean.forEach(productDtoList::add);
-            for (ProductDto dto : productDtoList) {
-                Product p = productRepository.save(productConverter.fromDto(dto));
-                products.add(p);
-            }
-            return products.stream().map(productConverter::toDto).toList();
+    @Transactional(readOnly = true)
+    public void exportProducts(Integer categoryId, boolean gzip, HttpServletResponse response)
+            throws IOException, CsvRequiredFieldEmptyException, CsvDataTypeMismatchException {
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new EntityNotFoundException(String.format("Category with id %d not found", categoryId));
+        }
+        try (Stream<ProductView> products = productRepository.streamViews(categoryId)) {
+            csvExporter.export(products.map(productConverter::toDto).iterator(),
+                    categoryId == null ? "products" : String.format("Category %d - products", categoryId), gzip, response);
+        }
+    }
+
+    /**
+     * Rows with the id of an existing product update it, so every chunk first reads the current
+     * category of those products: both the product and the category it leaves are invalidated, and
+     * only inserted rows and moves between categories change the counts.
+     */
+    @Override
+    public ImportResultDto uploadProductsFromFile(MultipartFile file) throws IOException {
+        Map<Integer, Integer> previousCategories = new HashMap<>();
+        return csvImporter.importFrom(file.getInputStream(), ProductDto.class, rows -> {
+                    previousCategories.clear();
+                    previousCategories.putAll(currentCategories(rows));
+                    return productConverter.fromDtos(rows);
+                }, productRepository, products -> {
+                    products.forEach(productSearchIndex::index);
+                    Map<Integer, Long> categoryDeltas = new HashMap<>();
+                    Set<Integer> saved = new HashSet<>();
+                    for (Product product : products) {
+                        if (saved.add(product.getId())) {
+                            categoryDeltas.merge(product.getCategory().getId(), 1L, Long::sum);
+                            Integer previous = previousCategories.get(product.getId());
+                            if (previous != null) {
+                                categoryDeltas.merge(previous, -1L, Long::sum);
+                            }
+                        }
+                    }
+                    Set<Integer> categoryIds = categoryDeltas.keySet();
+                    catalogCache.invalidateProducts(previousCategories.keySet(), categoryIds);
+                    searchResultCache.invalidateCategories(categoryIds);
+                    countCache.add(saved.size() - previousCategories.size(), CountCache.PRODUCTS);
+                    categoryDeltas.forEach((categoryId, delta) -> countCache.add(delta, CountCache.productsInCategory(categoryId)));
+                });
+    }
+
+    private Map<Integer, Integer> currentCategories(List<ProductDto> rows) {
+        List<Integer> ids = rows.stream().map(ProductDto::getId).filter(id -> id > 0).distinct().toList();
+        return ids.isEmpty() ? Map.of() : productRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductView::id, ProductView::categoryId));
+    }
+
+    private CursorPageDto<ProductDto> findAllAfter(Specification<Product> specification, String after, int pageSize, String param) {
+        Sort sort = SortKeys.sort(Product.class, param);
+        Window<Product> window = productRepository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(pageSize)
+                .scroll(KeysetCursor.position(after, Product.class, sort)));
+        return new CursorPageDto<>(window.getContent().stream().map(productConverter::toDto).toList(), KeysetCursor.next(window));
+    }
+
+    private List<ProductDto> findAllByIdOrdered(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        Map<Integer, ProductView> products = productRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+        return ids.stream().map(products::get).filter(Objects::nonNull).map(productConverter::toDto).toList();
+    }
+
+    private record CategoryPageKey(int categoryId, int pageNumber, int pageSize) {
     }
 }
@@ -1,25 +1,44 @@
 package com.example.restwebservice.services.impl;
 
+import com.example.restwebservice.cache.CountCache;
 import com.example.restwebservice.config.JwtProvider;
+import com.example.restwebservice.config.LoginExecutor;
+import com.example.restwebservice.dto.BulkResultDto;
 import com.example.restwebservice.dto.JwtRequest;
 import com.example.restwebservice.dto.JwtResponse;
+import com.example.restwebservice.dto.OrderDto;
+import com.example.restwebservice.dto.RoleDto;
 import com.example.restwebservice.dto.UserDto;
+import com.example.restwebservice.dto.converters.OrderConverter;
+import com.example.restwebservice.dto.converters.ProductConverter;
+import com.example.restwebservice.dto.converters.RoleConverter;
 import com.example.restwebservice.dto.converters.UserConverter;
+import com.example.restwebservice.dto.views.OrderProductView;
+import com.example.restwebservice.dto.views.OrderView;
+import com.example.restwebservice.dto.views.RoleView;
+import com.example.restwebservice.dto.views.UserView;
 import com.example.restwebservice.entities.User;
 import com.example.restwebservice.exceptions.AuthorizationException;
+import com.example.restwebservice.exceptions.ServiceUnavailableException;
+import com.example.restwebservice.repositories.OrderRepository;
 import com.example.restwebservice.repositories.UserRepository;
+import com.example.restwebservice.services.RefreshTokenStore;
 import com.example.restwebservice.services.UserService;
 import io.jsonwebtoken.Claims;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,18 +46,37 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserConverter userConverter;
+    private final OrderRepository orderRepository;
+    private final OrderConverter orderConverter;
+    private final ProductConverter productConverter;
+    private final RoleConverter roleConverter;
     private final PasswordEncoder passwordEncoder;
     private final JwtProvider jwtProvider;
-    private static final Map<String, String> refreshStorage = new HashMap<>();
+    private final RefreshTokenStore refreshTokenStore;
+    private final LoginExecutor loginExecutor;
+    private final CountCache countCache;
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream().map(userConverter::toDto).toList();
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllUsers(int pageNumber, int pageSize) {
+        List<UserView> users = userRepository.findAllViews(PageRequest.of(pageNumber, pageSize, Sort.by("id"))).getContent();
+        return users.isEmpty() ? List.of() : withOrdersAndRoles(users);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public BulkResultDto<UserDto> getUsersByIds(List<Integer> ids) {
+        List<UserView> users = userRepository.findViewsByIdIn(ids);
+        if (users.isEmpty()) {
+            return BulkResultDto.of(ids, List.of(), UserDto::getId);
+        }
+        return BulkResultDto.of(ids, withOrdersAndRoles(users), UserDto::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(int id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("User with id %d not found", id)));
         return userConverter.toDto(user);
     }
@@ -52,13 +90,21 @@ public class UserServiceImpl implements UserService {
 
 
     @Override
-    public JwtResponse login(@NonNull JwtRequest request) throws AuthorizationException {
-        UserDto user = userRepository.findByEmail(request.getEmail()).map(userConverter::toDto)
+    public JwtResponse login(@NonNull JwtRequest request) throws AuthorizationException, ServiceUnavailableException {
+        User entity = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AuthorizationException("User not found"));
-        if (passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        PasswordCheck passwordCheck = loginExecutor.execute(() -> checkPassword(request.getPassword(), entity.getPassword()));
+        if (passwordCheck.matches()) {
+            if (passwordCheck.rehashed() != null) {
+                userRepository.updatePassword(entity.getId(), passwordCheck.rehashed());
+            }
+            UserDto user = UserDto.builder()
+                    .email(entity.getEmail())
+                    .roles(entity.getRoles().stream().map(roleConverter::toDto).toList())
+                    .build();
             String accessToken = jwtProvider.generateAccessToken(user);
             String refreshToken = jwtProvider.generateRefreshToken(user);
-            refreshStorage.put(user.getEmail(), refreshToken);
+            refreshTokenStore.put(user.getEmail(), refreshToken, Instant.now().plus(JwtProvider.REFRESH_TOKEN_TTL));
             return new JwtResponse(accessToken, refreshToken);
         } else {
             throw new AuthorizationException("Invalid password");
@@ -66,12 +112,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public JwtResponse getAccessToken(@NonNull String refreshToken) throws AuthorizationException {
-        if (jwtProvider.validateRefreshToken(refreshToken)) {
-            final Claims claims = jwtProvider.getRefreshClaims(refreshToken);
-            final String email = claims.getSubject();
-            final String saveRefreshToken = refreshStorage.get(email);
-            if (saveRefreshToken != null && saveRefreshToken.equals(refreshToken)) {
+        final Optional<Claims> claims = jwtProvider.parseRefreshToken(refreshToken);
+        if (claims.isPresent()) {
+            final String email = claims.get().getSubject();
+            if (refreshTokenStore.matches(email, refreshToken)) {
                 UserDto user = userRepository.findByEmail(email).map(userConverter::toDto)
                         .orElseThrow(() -> new AuthorizationException("User not found"));
                 final String accessToken = jwtProvider.generateAccessToken(user);
@@ -83,24 +129,27 @@ public class UserServiceImpl implements UserService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public JwtResponse getRefreshToken(@NonNull String refreshToken) throws AuthorizationException {
-        if (jwtProvider.validateRefreshToken(refreshToken)) {
-            final Claims claims = jwtProvider.getRefreshClaims(refreshToken);
-            final String email = claims.getSubject();
-            final String saveRefreshToken = refreshStorage.get(email);
-            if (saveRefreshToken != null && saveRefreshToken.equals(refreshToken)) {
+        final Optional<Claims> claims = jwtProvider.parseRefreshToken(refreshToken);
+        if (claims.isPresent()) {
+            final String email = claims.get().getSubject();
+            if (refreshTokenStore.matches(email, refreshToken)) {
                 UserDto user = userRepository.findByEmail(email).map(userConverter::toDto)
                         .orElseThrow(() -> new AuthorizationException("User not found"));
                 final String accessToken = jwtProvider.generateAccessToken(user);
                 final String newRefreshToken = jwtProvider.generateRefreshToken(user);
-                refreshStorage.put(user.getEmail(), newRefreshToken);
-                return new JwtResponse(accessToken, newRefreshToken);
+                if (refreshTokenStore.replace(email, refreshToken, newRefreshToken,
+                        Instant.now().plus(JwtProvider.REFRESH_TOKEN_TTL))) {
+                    return new JwtResponse(accessToken, newRefreshToken);
+                }
             }
         }
         throw new AuthorizationException("Invalid jwt token");
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(UserDto userDto) {
         User user = userRepository.findById(userDto.getId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("User with id %d not found", userDto.getId())));
@@ -114,11 +163,44 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("User with id %d not found", id)));
         userRepository.delete(user);
+        countCache.invalidate(List.of(CountCache.ordersOfUser(id)));
     }
 
     @Override
     public Optional<User> findByLogin(String login) {
         return userRepository.findByEmail(login);
     }
-}
 
+    /**
+     * Reads the orders, order lines and roles of the given users only, one statement each.
+     */
+    private List<UserDto> withOrdersAndRoles(List<UserView> users) {
+        List<Integer> userIds = users.stream().map(UserView::id).toList();
+        List<OrderView> orderViews = orderRepository.findViewsByUserIdIn(userIds);
+        List<OrderProductView> orderProductViews = orderRepository.findProductViewsByUserIdIn(userIds);
+        List<RoleView> roleViews = userRepository.findRoleViewsByUserIdIn(userIds);
+        Map<Integer, List<OrderProductView>> orderLines = orderProductViews.stream()
+                .collect(Collectors.groupingBy(OrderProductView::orderId));
+        Map<Integer, List<OrderDto>> orders = orderViews.stream()
+                .collect(Collectors.groupingBy(OrderView::userId, Collectors.mapping(o -> {
+                    List<OrderProductView> lines = orderLines.getOrDefault(o.id(), List.of());
+                    return orderConverter.toDto(o, lines.stream().map(v -> productConverter.toDto(v.product())).toList(),
+                            lines.stream().map(OrderProductView::quantity).toList());
+                }, Collectors.toList())));
+        Map<Integer, List<RoleDto>> roles = roleViews.stream()
+                .collect(Collectors.groupingBy(RoleView::userId, Collectors.mapping(roleConverter::toDto, Collectors.toList())));
+        return users.stream()
+                .map(u -> userConverter.toDto(u, orders.getOrDefault(u.id(), List.of()), roles.getOrDefault(u.id(), List.of())))
+                .toList();
+    }
+
+    private PasswordCheck checkPassword(String rawPassword, String encodedPassword) {
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return new PasswordCheck(false, null);
+        }
+        return new PasswordCheck(true, passwordEncoder.upgradeEncoding(encodedPassword) ? passwordEncoder.encode(rawPassword) : null);
+    }
+
+    private record PasswordCheck(boolean matches, String rehashed) {
+    }
+}
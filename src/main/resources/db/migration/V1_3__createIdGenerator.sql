@@ -0,0 +1,19 @@
+USE shop_hib;
+
+CREATE TABLE `shop_hib`.`id_generator`
+(
+    `table_name` VARCHAR(45) NOT NULL,
+    `next_val`   BIGINT      NOT NULL,
+    PRIMARY KEY (`table_name`)
+);
+
+INSERT INTO `shop_hib`.`id_generator` (`table_name`, `next_val`)
+SELECT 'users', COALESCE(MAX(`id`), 0) + 1 FROM `shop_hib`.`users`;
+INSERT INTO `shop_hib`.`id_generator` (`table_name`, `next_val`)
+SELECT 'categories', COALESCE(MAX(`id`), 0) + 1 FROM `shop_hib`.`categories`;
+INSERT INTO `shop_hib`.`id_generator` (`table_name`, `next_val`)
+SELECT 'orders', COALESCE(MAX(`id`), 0) + 1 FROM `shop_hib`.`orders`;
+INSERT INTO `shop_hib`.`id_generator` (`table_name`, `next_val`)
+SELECT 'products', COALESCE(MAX(`id`), 0) + 1 FROM `shop_hib`.`products`;
+INSERT INTO `shop_hib`.`id_generator` (`table_name`, `next_val`)
+SELECT 'roles', COALESCE(MAX(`id`), 0) + 1 FROM `shop_hib`.`roles`;
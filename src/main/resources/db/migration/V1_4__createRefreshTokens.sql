@@ -0,0 +1,10 @@
+USE shop_hib;
+
+CREATE TABLE `shop_hib`.`refresh_tokens`
+(
+    `email`        VARCHAR(45) NOT NULL,
+    `token_digest` CHAR(64)    NOT NULL,
+    `expires_at`   TIMESTAMP   NOT NULL,
+    PRIMARY KEY (`email`),
+    INDEX `expires_at_idx` (`expires_at` ASC)
+);
@@ -0,0 +1,11 @@
+USE shop_hib;
+
+-- Secondary indexes end in the primary key, so the foreign key indexes already serve the "id" sort
+-- of products by category and orders by user.
+CREATE INDEX `price_id_idx` ON `shop_hib`.`products` (`price` ASC, `id` ASC);
+CREATE INDEX `name_id_idx` ON `shop_hib`.`products` (`name` ASC, `id` ASC);
+
+CREATE INDEX `rating_id_idx` ON `shop_hib`.`categories` (`rating` ASC, `id` ASC);
+
+CREATE INDEX `user_id_date_id_idx` ON `shop_hib`.`orders` (`user_id` ASC, `date` ASC, `id` ASC);
+CREATE INDEX `user_id_price_id_idx` ON `shop_hib`.`orders` (`user_id` ASC, `price` ASC, `id` ASC);
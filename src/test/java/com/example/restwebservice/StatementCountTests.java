@@ -0,0 +1,357 @@
+package com.example.restwebservice;
+
+import com.example.restwebservice.config.JwtProvider;
+import com.example.restwebservice.dto.RoleDto;
+import com.example.restwebservice.dto.UserDto;
+import com.example.restwebservice.entities.Category;
+import com.example.restwebservice.entities.Order;
+import com.example.restwebservice.entities.OrderLine;
+import com.example.restwebservice.entities.Product;
+import com.example.restwebservice.entities.Role;
+import com.example.restwebservice.entities.User;
+import com.example.restwebservice.metrics.SqlCounters;
+import com.example.restwebservice.services.CartStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private int categoryId;
+    private int uploadCategoryId;
+    private int productId;
+    private int movedProductId;
+    private int movedFromCategoryId;
+    private int userId;
+    private int orderId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            entityManager.joinTransaction();
+            Role role = Role.builder().name("USER").build();
+            entityManager.persist(role);
+            List<Category> categories = new ArrayList<>();
+            for (int c = 0; c < 3; c++) {
+                Category category = Category.builder().name("Category " + c).imagePath("c.jpg").rating(c).build();
+                entityManager.persist(category);
+                categories.add(category);
+                for (int p = 0; p < 5; p++) {
+                    entityManager.persist(Product.builder().name("Product " + c + p).description("Description")
+                            .price(100 + p).category(category).imagePath("p.jpg").build());
+                }
+            }
+            User user = User.builder().name("User").surname("User").birthday(LocalDate.of(1990, 1, 1))
+                    .email("user@aa.aa").password("password").address("Minsk 12-12").phoneNumber("+375295555550")
+                    .roles(List.of(role)).build();
+            entityManager.persist(user);
+            List<Product> products = entityManager.createQuery("select p from Product p", Product.class).getResultList();
+            Order order = null;
+            for (int o = 0; o < 4; o++) {
+                order = Order.builder().price(300).date(LocalDate.of(2023, 1, 1)).user(user)
+                        .lines(products.subList(o, o + 3).stream().map(p -> new OrderLine(p, 1)).toList()).build();
+                entityManager.persist(order);
+            }
+            entityManager.flush();
+            categoryId = categories.get(0).getId();
+            uploadCategoryId = categories.get(2).getId();
+            productId = products.get(0).getId();
+            movedProductId = products.get(9).getId();
+            movedFromCategoryId = categories.get(1).getId();
+            userId = user.getId();
+            orderId = order.getId();
+        });
+    }
+
+    @Test
+    void getProductByIdIsSingleStatement() throws Exception {
+        assertStatements(1, get("/products/{id}", productId));
+    }
+
+    @Test
+    void getProductsByCategoryDoesNotLoadOrders() throws Exception {
+        assertStatements(1, get("/products/category/{id}", categoryId).param("pageNumber", "0").param("pageSize", "10"));
+    }
+
+    @Test
+    void getProductsByCategoryCountsOnlyWhenAskedAndOnce() throws Exception {
+        mockMvc.perform(get("/products/category/{id}", categoryId).param("pageNumber", "0").param("pageSize", "1").param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "5"));
+        assertStatements(1, get("/products/category/{id}", categoryId).param("pageNumber", "1").param("pageSize", "1").param("withTotal", "true"));
+    }
+
+    @Test
+    void getAllProductsByCursorSkipsCount() throws Exception {
+        assertStatements(1, get("/products/all").param("after", "").param("pageSize", "4").param("param", "price"));
+    }
+
+    @Test
+    void unindexedSortKeyIsRejectedWithoutQuery() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/products/all").param("pageNumber", "0").param("pageSize", "4").param("param", "description"))
+                .andExpect(status().isBadRequest());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void getCategoryByIdFetchesProductsInOneStatement() throws Exception {
+        assertStatements(1, get("/categories/{id}", categoryId));
+    }
+
+    @Test
+    void getCategoryByIdIsServedFromCache() throws Exception {
+        mockMvc.perform(get("/categories/{id}", categoryId)).andExpect(status().isOk());
+        assertStatements(0, get("/categories/{id}", categoryId));
+    }
+
+    @Test
+    void getProductsByIdsIsSingleStatement() throws Exception {
+        assertStatements(1, get("/products").param("ids", String.valueOf(productId + 1), "999999", String.valueOf(productId)));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getUsersByIdsBatchesOrdersAndRoles() throws Exception {
+        assertStatements(4, get("/users").param("ids", String.valueOf(userId)));
+    }
+
+    @Test
+    void getAllCategoriesBatchesProductLists() throws Exception {
+        assertStatements(2, get("/categories/all").param("pageNumber", "0").param("pageSize", "10"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void getOrderByIdFetchesProductsOnly() throws Exception {
+        assertStatements(1, get("/orders/{id}", orderId));
+    }
+
+    @Test
+    void bearerTokenAuthenticatesWithoutUserLookup() throws Exception {
+        String token = jwtProvider.generateAccessToken(UserDto.builder().email("user@aa.aa")
+                .roles(List.of(RoleDto.builder().name("USER").build())).build());
+        assertStatements(1, get("/orders/{id}", orderId).header("Authorization", "Bearer " + token));
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void getOrdersByUserIdBatchesProductLists() throws Exception {
+        assertStatements(2, get("/orders/user/{id}", userId).param("pageNumber", "0").param("pageSize", "10"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getAllUsersReadsOrdersOfThePageOnly() throws Exception {
+        assertStatements(4, get("/users/all").param("pageNumber", "0").param("pageSize", "10"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getUserByIdBatchesOrders() throws Exception {
+        assertStatements(3, get("/users/{id}", userId));
+    }
+
+    @Test
+    void exportProductsStreamsSingleQuery() throws Exception {
+        assertStatements(2, get("/products/export").param("categoryId", String.valueOf(categoryId)));
+    }
+
+    @Test
+    void exportCategoriesStreamsSingleQuery() throws Exception {
+        assertStatements(1, get("/categories/export").param("gzip", "true"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void exportOrdersStreamsSingleQuery() throws Exception {
+        assertStatements(2, get("/orders/export").param("userId", String.valueOf(userId)).param("from", "2023-01-01"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void uploadProductsBatchesInserts() throws Exception {
+        StringBuilder csv = new StringBuilder("name,description,price,categoryId,imagePath\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("Imported ").append(i).append(",Description,100,").append(uploadCategoryId).append(",p.jpg\n");
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv", csv.toString().getBytes());
+        statistics.clear();
+        mockMvc.perform(multipart("/products/upload").file(file)).andExpect(status().isCreated());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void uploadEvictsUpdatedProductAndItsPreviousCategory() throws Exception {
+        mockMvc.perform(get("/products/{id}", movedProductId)).andExpect(status().isOk());
+        mockMvc.perform(get("/categories/{id}", movedFromCategoryId)).andExpect(status().isOk());
+        mockMvc.perform(productsOfCategoryWithTotal(movedFromCategoryId)).andExpect(header().string("X-Total-Count", "5"));
+        mockMvc.perform(productsOfCategoryWithTotal(uploadCategoryId)).andExpect(status().isOk());
+        String csv = "id,name,description,price,categoryId,imagePath\n"
+                + movedProductId + ",Moved,Description,150," + uploadCategoryId + ",p.jpg\n";
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv", csv.getBytes());
+        mockMvc.perform(multipart("/products/upload").file(file)).andExpect(status().isCreated());
+
+        String product = mockMvc.perform(get("/products/{id}", movedProductId)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(product).get("name").asText()).isEqualTo("Moved");
+        assertThat(objectMapper.readTree(product).get("categoryId").asInt()).isEqualTo(uploadCategoryId);
+        String category = mockMvc.perform(get("/categories/{id}", movedFromCategoryId)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(category).get("products").findValuesAsText("id"))
+                .isNotEmpty()
+                .doesNotContain(String.valueOf(movedProductId));
+        mockMvc.perform(productsOfCategoryWithTotal(movedFromCategoryId)).andExpect(header().string("X-Total-Count", "4"));
+        String uploadCategoryCount = String.valueOf(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE category_id = ?", Long.class, uploadCategoryId));
+        mockMvc.perform(productsOfCategoryWithTotal(uploadCategoryId))
+                .andExpect(header().string("X-Total-Count", uploadCategoryCount));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void createCategoryKeepsCachedCategoriesAndProducts() throws Exception {
+        mockMvc.perform(get("/products/{id}", productId)).andExpect(status().isOk());
+        mockMvc.perform(get("/categories/{id}", categoryId)).andExpect(status().isOk());
+        String category = "{\"name\":\"Created\",\"imagePath\":\"c.jpg\",\"rating\":1}";
+        mockMvc.perform(post("/categories").contentType(MediaType.APPLICATION_JSON).content(category))
+                .andExpect(status().isCreated());
+        assertStatements(0, get("/products/{id}", productId));
+        assertStatements(0, get("/categories/{id}", categoryId));
+    }
+
+    @Test
+    @WithMockUser(username = "cart@aa.aa", authorities = "USER")
+    void addProductToCartIsSingleStatement() throws Exception {
+        assertStatements(1, post("/cart/addProduct/{id}", productId).param("quantity", "2"));
+    }
+
+    @Test
+    @WithMockUser(username = "user@aa.aa", authorities = "USER")
+    void createOrderWritesOneLinePerProduct() throws Exception {
+        cartStore.add("user@aa.aa", productId, "Product", 100, 3);
+        cartStore.add("user@aa.aa", productId + 1, "Product", 101, 1);
+        statistics.clear();
+        String created = mockMvc.perform(post("/orders")).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isLessThanOrEqualTo(4);
+        assertThat(statistics.getEntityUpdateCount())
+                .as("entities updated")
+                .isZero();
+        int id = objectMapper.readTree(created).get("id").asInt();
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM orders_products WHERE order_id = ? ORDER BY product_id",
+                Integer.class, id)).containsExactly(3, 1);
+        String read = mockMvc.perform(get("/orders/{id}", id)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(read).get("productList").findValuesAsText("id"))
+                .containsExactly(String.valueOf(productId), String.valueOf(productId + 1));
+        assertThat(objectMapper.readTree(read).get("quantities")).hasToString("[3,1]");
+        assertThat(objectMapper.readTree(created)).isEqualTo(objectMapper.readTree(read));
+    }
+
+    @Test
+    @WithMockUser(username = "user@aa.aa", authorities = "USER")
+    void updateOrderWritesQuantities() throws Exception {
+        ObjectNode order = (ObjectNode) objectMapper.readTree(mockMvc.perform(get("/orders/{id}", orderId))
+                .andReturn().getResponse().getContentAsString());
+        order.putArray("quantities").add(2).add(1).add(4);
+        mockMvc.perform(put("/orders").contentType(MediaType.APPLICATION_JSON).content(order.toString()))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM orders_products WHERE order_id = ? ORDER BY product_id",
+                Integer.class, orderId)).containsExactly(2, 1, 4);
+
+        order.putArray("quantities").add(1);
+        mockMvc.perform(put("/orders").contentType(MediaType.APPLICATION_JSON).content(order.toString()))
+                .andExpect(status().isBadRequest());
+        order.putArray("quantities").add(1).add(1).add(1);
+        mockMvc.perform(put("/orders").contentType(MediaType.APPLICATION_JSON).content(order.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void dataSourceProxyCountsEveryStatement() throws Exception {
+        SqlCounters counters = SqlCounters.current();
+        long before = counters.getStatements();
+        long rowsBefore = counters.getRows();
+        statistics.clear();
+        mockMvc.perform(get("/orders/user/{id}", userId).param("pageNumber", "0").param("pageSize", "10"))
+                .andExpect(status().isOk());
+        assertThat(counters.getStatements() - before).isEqualTo(statistics.getPrepareStatementCount());
+        assertThat(counters.getRows() - rowsBefore).isGreaterThanOrEqualTo(4);
+    }
+
+    private static RequestBuilder productsOfCategoryWithTotal(int id) {
+        return get("/products/category/{id}", id).param("pageNumber", "0").param("pageSize", "1").param("withTotal", "true");
+    }
+
+    private void assertStatements(long max, RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements issued")
+                .isLessThanOrEqualTo(max);
+    }
+}
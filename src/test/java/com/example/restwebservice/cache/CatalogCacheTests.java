@@ -0,0 +1,160 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.exceptions.LoadTimeoutException;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.restwebservice.cache.SingleFlightTests.await;
+import static com.example.restwebservice.cache.SingleFlightTests.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CatalogCacheTests {
+
+    private static final long MAX_BYTES = 1 << 20;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CatalogCache cache = cache(0.0);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ProductDto>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> cache.getProduct(1, id -> {
+                    await(release);
+                    return product(id, "Phone");
+                })));
+            }
+            waitUntil(() -> cache.metrics().get("products.coalesced").longValue() == 3);
+            release.countDown();
+            for (Future<ProductDto> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Phone");
+            }
+            assertThat(cache.metrics().get("products.loads")).isEqualTo(1L);
+            assertThat(cache.getProduct(1, this::failingLoad).getName()).isEqualTo("Phone");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        CatalogCache cache = cache(0.0);
+        assertThatExceptionOfType(EntityNotFoundException.class).isThrownBy(() -> cache.getProduct(1, this::failingLoad));
+        assertThat(cache.getProduct(1, this::load).getName()).isEqualTo("Phone");
+        assertThat(loads).hasValue(2);
+    }
+
+    /**
+     * A load of at least 2 ms with beta 1e9 moves the refresh point past the 10 s TTL unless
+     * {@code -ln(random)} is below 5e-6, so every read refreshes early.
+     */
+    @Test
+    void earlyRefreshServesTheCachedValueWhenItFails() {
+        CatalogCache cache = cache(1e9);
+        cache.getProduct(1, id -> {
+            sleep(Duration.ofMillis(2));
+            return load(id);
+        });
+        assertThat(cache.getProduct(1, this::failingLoad).getName()).isEqualTo("Phone");
+        assertThat(cache.getProduct(1, id -> product(id, "Renamed")).getName()).isEqualTo("Renamed");
+        assertThat(cache.metrics().get("earlyRefreshes")).isEqualTo(2L);
+        assertThat(cache.metrics().get("products.loadFailures")).isEqualTo(1L);
+    }
+
+    @Test
+    void waiterTimingOutServesTheCachedValueOrFails() throws Exception {
+        CatalogCache cache = new CatalogCache(MAX_BYTES, MAX_BYTES, Duration.ofSeconds(10), Duration.ofMillis(50), 1e9);
+        cache.getProduct(1, id -> {
+            sleep(Duration.ofMillis(2));
+            return load(id);
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leading = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProductDto> refresh = executor.submit(() -> cache.getProduct(1, id -> {
+                leading.countDown();
+                await(release);
+                return product(id, "Renamed");
+            }));
+            Future<ProductDto> miss = executor.submit(() -> cache.getProduct(2, id -> {
+                leading.countDown();
+                await(release);
+                return load(id);
+            }));
+            assertThat(leading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(cache.getProduct(1, this::failingLoad).getName()).isEqualTo("Phone");
+            assertThatExceptionOfType(LoadTimeoutException.class).isThrownBy(() -> cache.getProduct(2, this::failingLoad));
+            assertThat(loads).hasValue(1);
+            assertThat(cache.metrics().get("products.timeouts")).isEqualTo(2L);
+
+            release.countDown();
+            assertThat(refresh.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Renamed");
+            assertThat(miss.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Phone");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void freshEntriesAreNotRefreshedWithoutBeta() {
+        CatalogCache cache = cache(0.0);
+        cache.getProduct(1, this::load);
+        assertThat(cache.getProduct(1, this::failingLoad).getName()).isEqualTo("Phone");
+        assertThat(cache.metrics().get("earlyRefreshes")).isEqualTo(0L);
+    }
+
+    @Test
+    void invalidatedProductIsLoadedAgain() {
+        CatalogCache cache = cache(0.0);
+        cache.getProduct(1, this::load);
+        cache.getProduct(2, this::load);
+        cache.invalidateProducts(List.of(1), List.of(7));
+        assertThat(cache.getProduct(1, id -> product(id, "Renamed")).getName()).isEqualTo("Renamed");
+        assertThat(cache.getProduct(2, this::failingLoad).getName()).isEqualTo("Phone");
+    }
+
+    private ProductDto load(int id) {
+        loads.incrementAndGet();
+        return product(id, "Phone");
+    }
+
+    private ProductDto failingLoad(int id) {
+        loads.incrementAndGet();
+        throw new EntityNotFoundException(String.format("Product with id %d not found", id));
+    }
+
+    private static ProductDto product(int id, String name) {
+        return ProductDto.builder().id(id).name(name).price(100).categoryId(7).imagePath("p.jpg").build();
+    }
+
+    private static CatalogCache cache(double beta) {
+        return new CatalogCache(MAX_BYTES, MAX_BYTES, Duration.ofSeconds(10), Duration.ofSeconds(10), beta);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.restwebservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountCacheTests {
+
+    private final CountCache cache = new CountCache();
+
+    @Test
+    void queriesOnceThenAppliesDeltas() {
+        assertThat(cache.get(CountCache.PRODUCTS, () -> 10)).isEqualTo(10);
+        cache.add(3, CountCache.PRODUCTS, CountCache.productsInCategory(1));
+        assertThat(cache.get(CountCache.PRODUCTS, () -> 99)).isEqualTo(13);
+        assertThat(cache.get(CountCache.productsInCategory(1), () -> 7)).isEqualTo(7);
+        assertThat(cache.metrics()).containsEntry("queries", 2L).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void invalidatedCountsAreQueriedAgain() {
+        cache.get(CountCache.ordersOfUser(1), () -> 1);
+        cache.get(CountCache.ordersOfUser(2), () -> 2);
+        cache.get(CountCache.CATEGORIES, () -> 3);
+        cache.invalidatePrefix(CountCache.ORDERS_OF_USERS);
+        cache.invalidate(List.of(CountCache.CATEGORIES));
+        assertThat(cache.get(CountCache.ordersOfUser(1), () -> 11)).isEqualTo(11);
+        assertThat(cache.get(CountCache.ordersOfUser(2), () -> 12)).isEqualTo(12);
+        assertThat(cache.get(CountCache.CATEGORIES, () -> 13)).isEqualTo(13);
+    }
+
+    @Test
+    void countRacingAChangeIsNotKept() {
+        assertThat(cache.get(CountCache.PRODUCTS, () -> {
+            cache.add(1, CountCache.PRODUCTS);
+            return 10;
+        })).isEqualTo(10);
+        assertThat(cache.get(CountCache.PRODUCTS, () -> 11)).isEqualTo(11);
+        assertThat(cache.get(CountCache.PRODUCTS, () -> 12)).isEqualTo(11);
+    }
+
+    @Test
+    void slowQueryDoesNotBlockReaders() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> slow = executor.submit(() -> cache.get(CountCache.PRODUCTS, () -> {
+                started.countDown();
+                await(release);
+                return 10;
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(cache.get(CountCache.PRODUCTS, () -> 3)).isEqualTo(3);
+            release.countDown();
+            assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.dto.SearchParamsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTests {
+
+    private final SearchResultCache cache = new SearchResultCache(100, Duration.ofMinutes(5));
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @Test
+    void equivalentParamsShareOnePage() {
+        cache.get(SearchResultCache.normalize(params(" Phone ", -1, 0, "Mobile")), 0, 10, "id", true, Set.of(1), search(10));
+        List<Integer> ids = cache.get(SearchResultCache.normalize(params("phone", 0, 0, " MOBILE")), 0, 10, "id", true,
+                Set.of(1), search(11));
+        assertThat(ids).containsExactly(10);
+        assertThat(searches).hasValue(1);
+        cache.get(SearchResultCache.normalize(params("phone", 0, 0, "mobile")), 1, 10, "id", true, Set.of(1), search(12));
+        cache.get(SearchResultCache.normalize(params("phone", 0, 0, "mobile")), 0, 10, "price", true, Set.of(1), search(13));
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void categoryChangeDropsPagesThatFilterOnItOrNotAtAll() {
+        SearchParamsDto phones = params(null, 0, 0, "phone");
+        SearchParamsDto laptops = params(null, 0, 0, "laptop");
+        SearchParamsDto everything = params(null, 0, 0, null);
+        cache.get(phones, 0, 10, "id", true, Set.of(1), search(10));
+        cache.get(laptops, 0, 10, "id", true, Set.of(2, 3), search(20));
+        cache.get(everything, 0, 10, "id", true, null, search(10, 20));
+
+        cache.invalidateCategories(List.of(3, 4));
+
+        assertThat(cache.get(phones, 0, 10, "id", true, Set.of(1), search(11))).containsExactly(10);
+        assertThat(cache.get(laptops, 0, 10, "id", true, Set.of(2, 3), search(21))).containsExactly(21);
+        assertThat(cache.get(everything, 0, 10, "id", true, null, search(11, 21))).containsExactly(11, 21);
+        assertThat(cache.metrics()).containsEntry("invalidated", 2L);
+    }
+
+    @Test
+    void newCategoryDropsOnlyPagesFilteredByName() {
+        SearchParamsDto phones = params(null, 0, 0, "phone");
+        SearchParamsDto everything = params("phone", 0, 0, null);
+        cache.get(phones, 0, 10, "id", true, Set.of(1), search(10));
+        cache.get(everything, 0, 10, "id", true, null, search(10, 20));
+
+        cache.invalidateCategoryNames();
+
+        assertThat(cache.get(phones, 0, 10, "id", true, Set.of(1, 5), search(10, 50))).containsExactly(10, 50);
+        assertThat(cache.get(everything, 0, 10, "id", true, null, search(11))).containsExactly(10, 20);
+        assertThat(cache.metrics()).containsEntry("invalidated", 1L);
+    }
+
+    @Test
+    void searchByNameRacingANewCategoryIsNotStored() {
+        SearchParamsDto phones = params(null, 0, 0, "phone");
+        SearchParamsDto everything = params("phone", 0, 0, null);
+        cache.get(phones, 0, 10, "id", true, Set.of(1), () -> {
+            cache.invalidateCategoryNames();
+            return List.of(10);
+        });
+        cache.get(everything, 0, 10, "id", true, null, () -> {
+            cache.invalidateCategoryNames();
+            return List.of(10);
+        });
+        assertThat(cache.get(phones, 0, 10, "id", true, Set.of(1, 5), search(10, 50))).containsExactly(10, 50);
+        assertThat(cache.get(everything, 0, 10, "id", true, null, search(11))).containsExactly(10);
+    }
+
+    @Test
+    void invalidateAllDropsEveryPage() {
+        cache.get(params("phone", 0, 0, null), 0, 10, "id", true, null, search(10));
+        cache.get(params(null, 0, 0, "laptop"), 0, 10, "id", true, Set.of(2), search(20));
+        cache.invalidateAll();
+        assertThat(cache.get(params("phone", 0, 0, null), 0, 10, "id", true, null, search(11))).containsExactly(11);
+        assertThat(cache.get(params(null, 0, 0, "laptop"), 0, 10, "id", true, Set.of(2), search(21))).containsExactly(21);
+    }
+
+    @Test
+    void databasePagesAreNotServedAsIndexResults() {
+        SearchParamsDto params = params("phone", 0, 0, null);
+        cache.get(params, 0, 10, "id", false, null, search(15));
+        assertThat(cache.get(params, 0, 10, "id", true, null, search(10, 15))).containsExactly(10, 15);
+        assertThat(cache.get(params, 0, 10, "id", false, null, search(16))).containsExactly(15);
+    }
+
+    @Test
+    void searchRacingAnInvalidationIsNotStored() {
+        SearchParamsDto params = params("phone", 0, 0, null);
+        List<Integer> stale = cache.get(params, 0, 10, "id", true, null, () -> {
+            cache.invalidateCategories(List.of(1));
+            return List.of(10);
+        });
+        assertThat(stale).containsExactly(10);
+        assertThat(cache.get(params, 0, 10, "id", true, null, search(11))).containsExactly(11);
+    }
+
+    private Supplier<List<Integer>> search(Integer... ids) {
+        return () -> {
+            searches.incrementAndGet();
+            return List.of(ids);
+        };
+    }
+
+    private static SearchParamsDto params(String searchKey, int priceFrom, int priceTo, String categoryName) {
+        return SearchParamsDto.builder().searchKey(searchKey).priceFrom(priceFrom).priceTo(priceTo)
+                .categoryName(categoryName).build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.restwebservice.cache;
+
+import com.example.restwebservice.exceptions.LoadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.fail;
+
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loaderCalls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        List<Future<String>> results = callConcurrently(flights, () -> {
+            loaderCalls.incrementAndGet();
+            await(release);
+            return "value";
+        });
+        waitUntil(() -> flights.getCoalesced() == CALLERS - 1);
+        release.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loaderCalls).hasValue(1);
+        assertThat(flights.getLoads()).isEqualTo(1);
+        assertThat(flights.inFlight()).isZero();
+    }
+
+    @Test
+    void waiterFailsWithoutLoadingOnceTheTimeoutPasses() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch leading = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flights.execute("key", () -> {
+            leading.countDown();
+            await(release);
+            return "leader";
+        }));
+        assertThat(leading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThatExceptionOfType(LoadTimeoutException.class).isThrownBy(() -> flights.execute("key", () -> {
+            loaderCalls.incrementAndGet();
+            return "waiter";
+        })).satisfies(e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(flights.getTimeouts()).isEqualTo(1);
+        assertThat(loaderCalls).hasValue(0);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(flights.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void failureIsRethrownToEveryWaiterAndNotCached() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        List<Future<String>> results = callConcurrently(flights, () -> {
+            loaderCalls.incrementAndGet();
+            await(release);
+            throw failure;
+        });
+        waitUntil(() -> flights.getCoalesced() == CALLERS - 1);
+        release.countDown();
+        for (Future<String> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("expected the load to fail");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isSameAs(failure);
+            }
+        }
+        assertThat(loaderCalls).hasValue(1);
+        assertThat(flights.getFailures()).isEqualTo(1);
+        assertThat(flights.inFlight()).isZero();
+
+        assertThat(flights.execute("key", () -> "recovered")).isEqualTo("recovered");
+        assertThatIllegalStateException().isThrownBy(() -> flights.execute("key", () -> {
+            throw new IllegalStateException("again");
+        })).withMessage("again");
+    }
+
+    private List<Future<String>> callConcurrently(SingleFlight<String, String> flights, Supplier<String> loader) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flights.execute("key", loader)));
+        }
+        return results;
+    }
+
+    static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not reached within 5 seconds");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.exceptions.GlobalControllerExceptionHandler;
+import com.example.restwebservice.exceptions.ServiceUnavailableException;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class LoginExecutorTests {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LoginExecutor loginExecutor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void fullQueueIsServiceUnavailable() throws Exception {
+        loginExecutor = new LoginExecutor(1, 1, Duration.ofSeconds(10), Duration.ofSeconds(3));
+        CountDownLatch running = new CountDownLatch(1);
+        Future<String> first = callers.submit(() -> loginExecutor.execute(() -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> loginExecutor.execute(() -> "queued"));
+        waitUntilQueued(1);
+
+        assertServiceUnavailable(() -> loginExecutor.execute(() -> "rejected"), "3");
+        assertThat(loginExecutor.metrics().get("rejected")).isEqualTo(1L);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void timeoutIsServiceUnavailableAndCancelsTheTask() throws Exception {
+        loginExecutor = new LoginExecutor(1, 1, Duration.ofMillis(50), Duration.ofSeconds(1));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertServiceUnavailable(() -> loginExecutor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }), "1");
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).as("timed-out task interrupted").isTrue();
+        assertThat(loginExecutor.metrics().get("timedOut")).isEqualTo(1L);
+        assertThat(loginExecutor.execute(() -> "next")).isEqualTo("next");
+    }
+
+    @Test
+    void taskFailureIsRethrown() {
+        loginExecutor = new LoginExecutor(1, 1, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        IllegalArgumentException failure = new IllegalArgumentException("bad hash");
+        assertThat(catchThrowableOfType(() -> loginExecutor.execute(() -> {
+            throw failure;
+        }), IllegalArgumentException.class)).isSameAs(failure);
+    }
+
+    private void waitUntilQueued(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loginExecutor.metrics().get("queueDepth").intValue() < depth) {
+            assertThat(System.nanoTime()).as("queued within 5 seconds").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertServiceUnavailable(ThrowingCallable call, String retryAfter) {
+        ServiceUnavailableException e = catchThrowableOfType(call, ServiceUnavailableException.class);
+        assertThat(e).isNotNull();
+        ResponseEntity<String> response = new GlobalControllerExceptionHandler().handleServiceUnavailableException(e);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo(retryAfter);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.dto.JwtRequest;
+import com.example.restwebservice.dto.converters.RoleConverter;
+import com.example.restwebservice.entities.Role;
+import com.example.restwebservice.entities.User;
+import com.example.restwebservice.repositories.UserRepository;
+import com.example.restwebservice.services.RefreshTokenStore;
+import com.example.restwebservice.services.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordUpgradeTests {
+
+    private final PasswordEncoder passwordEncoder = new WebSecurityConfig(null, null).passwordEncoder(10);
+    private final LoginExecutor loginExecutor = new LoginExecutor(1, 10, Duration.ofSeconds(10), Duration.ofSeconds(1));
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void upgradesOnlyHashesOfAnotherCost() {
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(new BCryptPasswordEncoder(12).encode("password"))).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password"))).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("plain")).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void loginRehashesAnotherCostExactlyOnce() throws Exception {
+        User user = user(new BCryptPasswordEncoder(4).encode("password"));
+        doAnswer(invocation -> {
+            user.setPassword(invocation.getArgument(1));
+            return null;
+        }).when(userRepository).updatePassword(anyInt(), anyString());
+
+        for (int i = 0; i < 3; i++) {
+            userService().login(request("password"));
+        }
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userRepository, times(1)).updatePassword(eq(user.getId()), rehashed.capture());
+        assertThat(rehashed.getValue()).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("password", rehashed.getValue())).isTrue();
+    }
+
+    @Test
+    void loginKeepsHashOfTheConfiguredCost() throws Exception {
+        user(passwordEncoder.encode("password"));
+        userService().login(request("password"));
+        verify(userRepository, never()).updatePassword(anyInt(), anyString());
+    }
+
+    private User user(String password) {
+        User user = User.builder().id(7).email("user@aa.aa").password(password)
+                .roles(List.of(Role.builder().id(1).name("USER").build())).build();
+        when(userRepository.findByEmail("user@aa.aa")).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private UserServiceImpl userService() {
+        return new UserServiceImpl(userRepository, null, null, null, null, new RoleConverter(), passwordEncoder,
+                mock(JwtProvider.class), mock(RefreshTokenStore.class), loginExecutor, null);
+    }
+
+    private static JwtRequest request(String password) {
+        JwtRequest request = new JwtRequest();
+        request.setEmail("user@aa.aa");
+        request.setPassword(password);
+        return request;
+    }
+}
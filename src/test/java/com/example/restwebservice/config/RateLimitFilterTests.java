@@ -0,0 +1,74 @@
+package com.example.restwebservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs on the login group of the default limits, 0.2 requests per second with a burst of 5.
+ * Every test uses its own client addresses, as buckets live as long as the shared context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void rejectsPastTheBurstWithRetryAfter() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login("10.0.0.1")).andExpect(notLimited());
+        }
+        mockMvc.perform(login("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+    }
+
+    @Test
+    void limitsGroupsAndClientsSeparately() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login("10.0.1.1")).andExpect(notLimited());
+        }
+        mockMvc.perform(login("10.0.1.1")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(login("10.0.1.2")).andExpect(notLimited());
+        mockMvc.perform(get("/categories/all").param("pageNumber", "0").param("pageSize", "1").with(remoteAddr("10.0.1.1")))
+                .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder login(String remoteAddr) {
+        return post("/users/login").with(remoteAddr(remoteAddr))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@aa.aa\",\"password\":\"password\"}");
+    }
+
+    private static RequestPostProcessor remoteAddr(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+
+    private static ResultMatcher notLimited() {
+        return result -> {
+            assertThat(result.getResponse().getStatus()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+            assertThat(result.getResponse().getHeader(HttpHeaders.RETRY_AFTER)).isNull();
+        };
+    }
+}
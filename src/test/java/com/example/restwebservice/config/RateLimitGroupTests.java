@@ -0,0 +1,78 @@
+package com.example.restwebservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RateLimitGroupTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void admitsABurstThenRejectsUntilTheNextEmission() {
+        RateLimitGroup group = new RateLimitGroup("test", 1, 3, List.of("/"));
+        for (int i = 0; i < 3; i++) {
+            assertThat(group.tryAcquire("client", 0)).isZero();
+        }
+        assertThat(group.tryAcquire("client", 0)).isEqualTo(SECOND);
+        assertThat(group.tryAcquire("client", SECOND / 4)).isEqualTo(SECOND * 3 / 4);
+        assertThat(group.tryAcquire("client", SECOND)).isZero();
+        assertThat(group.tryAcquire("client", SECOND)).isEqualTo(SECOND);
+        assertThat(group.getAllowed()).isEqualTo(4);
+        assertThat(group.getRejected()).isEqualTo(3);
+    }
+
+    @Test
+    void admitsASteadyRateIndefinitely() {
+        RateLimitGroup group = new RateLimitGroup("test", 10, 1, List.of("/"));
+        long interval = SECOND / 10;
+        for (int i = 0; i < 1000; i++) {
+            assertThat(group.tryAcquire("client", i * interval)).isZero();
+            assertThat(group.tryAcquire("client", i * interval + interval / 2)).isPositive();
+        }
+    }
+
+    @Test
+    void refillsTheBurstAfterIdling() {
+        RateLimitGroup group = new RateLimitGroup("test", 1, 3, List.of("/"));
+        for (int i = 0; i < 3; i++) {
+            group.tryAcquire("client", 0);
+        }
+        long later = 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(group.tryAcquire("client", later)).isZero();
+        }
+        assertThat(group.tryAcquire("client", later)).isPositive();
+    }
+
+    @Test
+    void limitsClientsIndependently() {
+        RateLimitGroup group = new RateLimitGroup("test", 1, 1, List.of("/"));
+        assertThat(group.tryAcquire("first", 0)).isZero();
+        assertThat(group.tryAcquire("first", 0)).isPositive();
+        assertThat(group.tryAcquire("second", 0)).isZero();
+    }
+
+    @Test
+    void evictsOnlyBucketsThatHaveRefilled() {
+        RateLimitGroup group = new RateLimitGroup("test", 1, 5, List.of("/"));
+        group.tryAcquire("idle", 0);
+        for (int i = 0; i < 5; i++) {
+            group.tryAcquire("busy", 0);
+        }
+        assertThat(group.evictIdle(SECOND / 2)).isZero();
+        assertThat(group.evictIdle(2 * SECOND)).isEqualTo(1);
+        assertThat(group.size()).isEqualTo(1);
+        assertThat(group.evictIdle(5 * SECOND)).isEqualTo(1);
+        assertThat(group.size()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RateLimitGroup("test", 0, 1, List.of("/")));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RateLimitGroup("test", 1, 0, List.of("/")));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.metrics.PrometheusText;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The test profile sets {@code metrics.prometheus.scrape-token} to {@code test-scrape-token}.
+ * Denied method calls reach the controller advice, which answers them like other exceptions.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ScrapeTokenTests {
+
+    private static final String SCRAPE_TOKEN = "Bearer test-scrape-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void scrapeTokenReadsPrometheusMetrics() throws Exception {
+        mockMvc.perform(get("/metrics/prometheus").header(HttpHeaders.AUTHORIZATION, SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(PrometheusText.CONTENT_TYPE));
+    }
+
+    @Test
+    void scrapeTokenDoesNotReadOtherMetrics() throws Exception {
+        mockMvc.perform(get("/metrics").header(HttpHeaders.AUTHORIZATION, SCRAPE_TOKEN))
+                .andExpect(denied());
+        mockMvc.perform(get("/metrics/sql").header(HttpHeaders.AUTHORIZATION, SCRAPE_TOKEN))
+                .andExpect(denied());
+    }
+
+    @Test
+    void otherBearerTokensAreNotScrapers() throws Exception {
+        mockMvc.perform(get("/metrics/prometheus").header(HttpHeaders.AUTHORIZATION, SCRAPE_TOKEN + "x"))
+                .andExpect(denied());
+        mockMvc.perform(get("/metrics/prometheus").header(HttpHeaders.AUTHORIZATION, "test-scrape-token"))
+                .andExpect(denied());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void adminReadsAllMetrics() throws Exception {
+        mockMvc.perform(get("/metrics/prometheus")).andExpect(status().isOk());
+        mockMvc.perform(get("/metrics")).andExpect(status().isOk());
+    }
+
+    private static ResultMatcher denied() {
+        return ResultMatcher.matchAll(status().isBadRequest(), content().string("Access Denied"));
+    }
+}
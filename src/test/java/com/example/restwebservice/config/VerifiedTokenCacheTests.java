@@ -0,0 +1,143 @@
+package com.example.restwebservice.config;
+
+import com.example.restwebservice.dto.RoleDto;
+import com.example.restwebservice.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTests {
+
+    private final JwtProvider parser = mock(JwtProvider.class);
+
+    @Test
+    void entryExpiresAtTheTokenExpiration() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(parser, 10);
+        long expiresAt = inSeconds(2);
+        when(parser.parseAccessToken("short")).thenReturn(Optional.of(claims("short", expiresAt)));
+
+        assertThat(cache.getAccessClaims("short")).isPresent();
+        assertThat(cache.getAccessClaims("short")).isPresent();
+        verify(parser, times(1)).parseAccessToken("short");
+
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis()) + 10);
+        when(parser.parseAccessToken("short")).thenReturn(Optional.empty());
+        assertThat(cache.getAccessClaims("short")).isEmpty();
+        verify(parser, times(2)).parseAccessToken("short");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void tokensWithoutExpirationAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(parser, 10);
+        when(parser.parseAccessToken("forever")).thenReturn(Optional.of(Jwts.claims().setSubject("forever")));
+        cache.getAccessClaims("forever");
+        cache.getAccessClaims("forever");
+        verify(parser, times(2)).parseAccessToken("forever");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void fullCacheEvictsExpiredEntriesFirst() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(parser, 3);
+        long expiresAt = inSeconds(2);
+        stub("expiring", expiresAt);
+        stub("first", inSeconds(60));
+        stub("second", inSeconds(60));
+        stub("third", inSeconds(60));
+        stub("fourth", inSeconds(60));
+        cache.getAccessClaims("expiring");
+        cache.getAccessClaims("first");
+        cache.getAccessClaims("second");
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis()) + 10);
+
+        cache.getAccessClaims("third");
+        assertThat(cache.size()).isEqualTo(3);
+        long misses = cache.getMisses();
+        cache.getAccessClaims("first");
+        cache.getAccessClaims("second");
+        cache.getAccessClaims("third");
+        assertThat(cache.getMisses()).as("only the expired entry was evicted").isEqualTo(misses);
+
+        cache.getAccessClaims("fourth");
+        assertThat(cache.size()).isEqualTo(3);
+        cache.getAccessClaims("fourth");
+        verify(parser, times(1)).parseAccessToken("fourth");
+    }
+
+    @Test
+    void tamperedTokenIsNeverServedFromTheCache() {
+        JwtProvider jwtProvider = new JwtProvider(secret(), secret());
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProvider, 10);
+        String token = jwtProvider.generateAccessToken(UserDto.builder().email("user@aa.aa")
+                .roles(List.of(RoleDto.builder().name("USER").build())).build());
+        assertThat(cache.getAccessClaims(token)).map(Claims::getSubject).contains("user@aa.aa");
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Encoders.BASE64URL.encode("{\"sub\":\"admin@aa.aa\",\"exp\":4102444800}".getBytes());
+        String forgedSignature = parts[2].charAt(0) == 'A' ? "B" + parts[2].substring(1) : "A" + parts[2].substring(1);
+        for (String tampered : List.of(parts[0] + "." + forgedPayload + "." + parts[2],
+                parts[0] + "." + parts[1] + "." + forgedSignature)) {
+            assertThat(cache.getAccessClaims(tampered)).as(tampered).isEmpty();
+            assertThat(cache.getAccessClaims(tampered)).as(tampered).isEmpty();
+        }
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.getAccessClaims(token)).isPresent();
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(parser, 10);
+        stub("token", inSeconds(60));
+        when(parser.parseAccessToken("invalid")).thenReturn(Optional.empty());
+
+        cache.getAccessClaims("token");
+        cache.getAccessClaims("token");
+        cache.getAccessClaims("token");
+        cache.getAccessClaims("invalid");
+
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.metrics()).isEqualTo(Map.of("hits", 2L, "misses", 2L, "size", 1));
+        cache.clear();
+        cache.getAccessClaims("token");
+        assertThat(cache.getMisses()).isEqualTo(3);
+        verify(parser, times(3)).parseAccessToken(anyString());
+    }
+
+    private void stub(String token, long expiresAt) {
+        when(parser.parseAccessToken(token)).thenReturn(Optional.of(claims(token, expiresAt)));
+    }
+
+    /**
+     * JWT expirations have whole seconds, so the test instants do too.
+     */
+    private static long inSeconds(int seconds) {
+        return (System.currentTimeMillis() / 1000 + seconds) * 1000;
+    }
+
+    private static Claims claims(String subject, long expiresAt) {
+        return Jwts.claims().setSubject(subject).setExpiration(new Date(expiresAt));
+    }
+
+    private static String secret() {
+        return Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS512).getEncoded());
+    }
+}
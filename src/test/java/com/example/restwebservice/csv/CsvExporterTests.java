@@ -0,0 +1,79 @@
+package com.example.restwebservice.csv;
+
+import com.example.restwebservice.dto.CategoryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CsvExporterTests {
+
+    private static final String EXPECTED = """
+            ID,IMAGEPATH,NAME,PRODUCTS,RATING
+            1,c.jpg,Phones,,5
+            2,c.jpg,Laptops,,5
+            """;
+
+    private final CsvExporter exporter = new CsvExporter();
+
+    @Test
+    void writesOneLinePerRow() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exporter.export(List.of(category(1, "Phones"), category(2, "Laptops")).iterator(), "categories", false, response);
+
+        assertThat(response.getContentType()).isEqualTo("text/csv");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=categories.csv");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void gzipWritesTheSameRowsCompressed() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        exporter.export(List.of(category(1, "Phones"), category(2, "Laptops")).iterator(), "categories", true, response);
+
+        assertThat(response.getContentType()).isEqualTo("application/gzip");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=categories.csv.gz");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void groupsConsecutiveRowsSharingAKey() {
+        Iterator<List<String>> groups = CsvExporter.groupConsecutive(Stream.of("a1", "a2", "b1", "a3", "c1", "c2"),
+                row -> row.charAt(0), List::copyOf);
+
+        assertThat(groups).toIterable().containsExactly(List.of("a1", "a2"), List.of("b1"), List.of("a3"),
+                List.of("c1", "c2"));
+        assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(groups::next);
+        assertThat(CsvExporter.groupConsecutive(Stream.<String>empty(), row -> row, List::copyOf)).isExhausted();
+    }
+
+    @Test
+    void groupingReadsOnlyOneRowPastTheGroup() {
+        Iterator<List<Integer>> groups = CsvExporter.groupConsecutive(Stream.iterate(0, i -> i + 1), i -> i / 3,
+                List::copyOf);
+
+        assertThat(groups.next()).containsExactly(0, 1, 2);
+        assertThat(groups.next()).containsExactly(3, 4, 5);
+        assertThat(groups.hasNext()).isTrue();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static CategoryDto category(int id, String name) {
+        return CategoryDto.builder().id(id).name(name).rating(5).imagePath("c.jpg").products(List.of()).build();
+    }
+}
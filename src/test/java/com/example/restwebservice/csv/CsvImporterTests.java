@@ -0,0 +1,110 @@
+package com.example.restwebservice.csv;
+
+import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.ImportResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsvImporterTests {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @SuppressWarnings("unchecked")
+    private final JpaRepository<CategoryDto, Integer> repository = mock(JpaRepository.class);
+    @SuppressWarnings("unchecked")
+    private final Consumer<List<CategoryDto>> afterCommit = mock(Consumer.class);
+    private final CsvImporter importer = new CsvImporter(new TransactionTemplate(transactionManager), 2);
+    private final List<List<String>> savedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<CategoryDto> chunk = invocation.getArgument(0);
+            savedChunks.add(chunk.stream().map(CategoryDto::getName).toList());
+            return chunk;
+        });
+    }
+
+    @Test
+    void writesEveryChunkInItsOwnTransaction() throws IOException {
+        ImportResultDto result = importCategories("Phones", "Laptops", "Cables", "Cases", "Chargers");
+
+        assertThat(result).isEqualTo(new ImportResultDto(5, 3));
+        assertThat(savedChunks).containsExactly(List.of("Phones", "Laptops"), List.of("Cables", "Cases"),
+                List.of("Chargers"));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void fullLastChunkIsNotFollowedByAnEmptyOne() throws IOException {
+        assertThat(importCategories("Phones", "Laptops", "Cables", "Cases")).isEqualTo(new ImportResultDto(4, 2));
+        assertThat(savedChunks).hasSize(2);
+        assertThat(importCategories()).isEqualTo(new ImportResultDto(0, 0));
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void failedChunkIsRolledBackAfterTheEarlierChunksCommitted() {
+        when(repository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("Duplicate entry"));
+
+        assertThatIllegalStateException().isThrownBy(() -> importCategories("Phones", "Laptops", "Cables", "Cases", "Chargers"))
+                .withMessage("Duplicate entry");
+
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(repository, times(2)).saveAll(anyList());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CategoryDto>> committed = ArgumentCaptor.forClass(List.class);
+        verify(afterCommit).accept(committed.capture());
+        assertThat(committed.getValue()).extracting(CategoryDto::getName).containsExactly("Phones", "Laptops");
+    }
+
+    @Test
+    void afterCommitSeesEachChunkOnlyOnceItCommitted() throws IOException {
+        importCategories("Phones", "Laptops", "Cables");
+
+        InOrder inOrder = inOrder(repository, transactionManager, afterCommit);
+        for (int chunk = 0; chunk < 2; chunk++) {
+            inOrder.verify(repository).saveAll(anyList());
+            inOrder.verify(transactionManager).commit(any());
+            inOrder.verify(afterCommit).accept(anyList());
+        }
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    private ImportResultDto importCategories(String... names) throws IOException {
+        StringBuilder csv = new StringBuilder("name,rating,imagePath\n");
+        for (String name : names) {
+            csv.append(name).append(",5,c.jpg\n");
+        }
+        return importer.importFrom(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                CategoryDto.class, Function.identity(), repository, afterCommit);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.restwebservice.datagen;
+
+import com.example.restwebservice.dto.CategoryDto;
+import com.example.restwebservice.dto.ProductDto;
+import com.example.restwebservice.dto.UserDto;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against H2 in MySQL mode with the columns of the migrated tables the generator writes.
+ */
+class DatasetGeneratorTests {
+
+    private static final List<String> TABLES = List.of("categories", "products", "users", "user_roles", "orders",
+            "orders_products");
+
+    private static ValidatorFactory validatorFactory;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void sameSeedGeneratesTheSameRows() {
+        JdbcTemplate first = schema("datagen_first");
+        JdbcTemplate second = schema("datagen_second");
+        JdbcTemplate other = schema("datagen_other");
+        GeneratedDataset dataset = generator(first, 42).generate();
+        assertThat(generator(second, 42).generate()).isEqualTo(dataset);
+        generator(other, 43).generate();
+
+        for (String table : TABLES) {
+            assertThat(dump(second, table)).as(table).isEqualTo(dump(first, table));
+        }
+        assertThat(dump(other, "orders_products")).isNotEqualTo(dump(first, "orders_products"));
+        assertThat(first.queryForObject("SELECT COUNT(*) FROM orders_products", Long.class)).isEqualTo(dataset.orderLines());
+        assertThat(first.queryForObject("SELECT next_val FROM id_generator WHERE table_name = 'orders'", Integer.class))
+                .isEqualTo(dataset.firstOrderId() + dataset.orders());
+    }
+
+    @Test
+    void generatedRowsPassValidation() {
+        JdbcTemplate jdbcTemplate = schema("datagen_valid");
+        generator(jdbcTemplate, 42).generate();
+        Validator validator = validatorFactory.getValidator();
+
+        List<UserDto> users = jdbcTemplate.query("SELECT * FROM users", (rs, i) -> UserDto.builder()
+                .id(rs.getInt("id")).name(rs.getString("name")).surname(rs.getString("surname"))
+                .birthday(rs.getDate("birthday").toLocalDate()).email(rs.getString("email"))
+                .password(rs.getString("password")).balance(rs.getInt("balance")).address(rs.getString("address"))
+                .phoneNumber(rs.getString("phone_number")).roles(List.of()).build());
+        List<ProductDto> products = jdbcTemplate.query("SELECT * FROM products", (rs, i) -> ProductDto.builder()
+                .id(rs.getInt("id")).name(rs.getString("name")).description(rs.getString("description"))
+                .price(rs.getInt("price")).categoryId(rs.getInt("category_id")).imagePath(rs.getString("image_path")).build());
+        List<CategoryDto> categories = jdbcTemplate.query("SELECT * FROM categories", (rs, i) -> CategoryDto.builder()
+                .id(rs.getInt("id")).name(rs.getString("name")).rating(rs.getInt("rating"))
+                .imagePath(rs.getString("image_path")).build());
+
+        assertThat(users).hasSize(50).allSatisfy(user -> assertThat(validator.validate(user)).as(user.toString()).isEmpty());
+        assertThat(products).hasSize(200)
+                .allSatisfy(product -> assertThat(validator.validate(product)).as(product.toString()).isEmpty());
+        assertThat(categories).hasSize(10)
+                .allSatisfy(category -> assertThat(validator.validate(category)).as(category.toString()).isEmpty());
+        assertThat(products).extracting(ProductDto::getName).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void lettersSpellDistinctIds() {
+        assertThat(DatasetGenerator.letters(1)).isEqualTo("a");
+        assertThat(DatasetGenerator.letters(26)).isEqualTo("z");
+        assertThat(DatasetGenerator.letters(27)).isEqualTo("aa");
+        assertThat(DatasetGenerator.letters(702)).isEqualTo("zz");
+        assertThat(DatasetGenerator.letters(703)).isEqualTo("aaa");
+        assertThat(IntStream.rangeClosed(1, 20_000).mapToObj(DatasetGenerator::letters)).doesNotHaveDuplicates();
+    }
+
+    private static DatasetGenerator generator(JdbcTemplate jdbcTemplate, long seed) {
+        return DatasetGenerator.builder()
+                .jdbcTemplate(jdbcTemplate)
+                .passwordHash("$2a$10$generatedPasswordHash")
+                .seed(seed)
+                .categories(10)
+                .products(200)
+                .users(50)
+                .orders(300)
+                .rowsPerStatement(64)
+                .build();
+    }
+
+    private static List<Map<String, Object>> dump(JdbcTemplate jdbcTemplate, String table) {
+        String order = switch (table) {
+            case "user_roles" -> "user_id, role_id";
+            case "orders_products" -> "order_id, product_id";
+            default -> "id";
+        };
+        return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY " + order);
+    }
+
+    private static JdbcTemplate schema(String database) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE categories (id INT PRIMARY KEY, name VARCHAR(45), image_path VARCHAR(45), rating INT)");
+        jdbcTemplate.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(45), description VARCHAR(300), "
+                + "price INT, category_id INT, image_path VARCHAR(45))");
+        jdbcTemplate.execute("CREATE TABLE roles (id INT PRIMARY KEY, name VARCHAR(45))");
+        jdbcTemplate.execute("CREATE TABLE users (id INT PRIMARY KEY, name VARCHAR(45), surname VARCHAR(45), birthday DATE, "
+                + "email VARCHAR(45), password VARCHAR(100), balance INT, address VARCHAR(45), phone_number VARCHAR(45))");
+        jdbcTemplate.execute("CREATE TABLE user_roles (user_id INT, role_id INT)");
+        jdbcTemplate.execute("CREATE TABLE orders (id INT PRIMARY KEY, date DATE, user_id INT, price INT)");
+        jdbcTemplate.execute("CREATE TABLE orders_products (order_id INT, product_id INT, quantity INT)");
+        jdbcTemplate.execute("CREATE TABLE id_generator (table_name VARCHAR(45) PRIMARY KEY, next_val INT)");
+        jdbcTemplate.execute("INSERT INTO roles (id, name) VALUES (1, 'USER')");
+        for (String table : List.of("categories", "products", "users", "orders")) {
+            jdbcTemplate.update("INSERT INTO id_generator (table_name, next_val) VALUES (?, 1)", table);
+        }
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.restwebservice.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfSamplerTests {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void rejectsEmptyRangesAndNegativeExponents() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ZipfSampler(0, 1.0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new ZipfSampler(10, -0.5));
+    }
+
+    @Test
+    void singleRankIsAlwaysDrawn() {
+        ZipfSampler sampler = new ZipfSampler(1, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        assertThat(IntStream.range(0, 1000).map(i -> sampler.sample(random))).containsOnly(1);
+    }
+
+    @Test
+    void zeroExponentIsUniform() {
+        long[] counts = counts(new ZipfSampler(10, 0.0), 10);
+        for (int rank = 1; rank <= 10; rank++) {
+            assertThat((double) counts[rank] / SAMPLES).as("share of rank %d", rank).isCloseTo(0.1, within(0.01));
+        }
+    }
+
+    @Test
+    void sharesFollowTheInversePowerOfTheRank() {
+        for (double exponent : new double[]{0.8, 1.0, 1.5}) {
+            int n = 1000;
+            long[] counts = counts(new ZipfSampler(n, exponent), n);
+            double normalization = IntStream.rangeClosed(1, n).mapToDouble(k -> Math.pow(k, -exponent)).sum();
+            for (int rank : new int[]{1, 2, 5, 10}) {
+                double expected = Math.pow(rank, -exponent) / normalization;
+                assertThat((double) counts[rank] / SAMPLES)
+                        .as("share of rank %d with exponent %s", rank, exponent)
+                        .isCloseTo(expected, within(Math.max(0.005, expected * 0.05)));
+            }
+        }
+    }
+
+    @Test
+    void sameSeedDrawsTheSameRanks() {
+        ZipfSampler sampler = new ZipfSampler(100_000, 1.0);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+        int[] drawn = IntStream.range(0, 1000).map(i -> sampler.sample(first)).toArray();
+        assertThat(IntStream.range(0, 1000).map(i -> sampler.sample(second)).toArray()).isEqualTo(drawn);
+        assertThat(IntStream.of(drawn)).allMatch(rank -> rank >= 1 && rank <= 100_000);
+    }
+
+    private static long[] counts(ZipfSampler sampler, int n) {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] counts = new long[n + 1];
+        for (int i = 0; i < SAMPLES; i++) {
+            int rank = sampler.sample(random);
+            assertThat(rank).isBetween(1, n);
+            counts[rank]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.restwebservice.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Load results stored as properties, e.g. the last release's {@code target/load-results.properties}
+ * kept as {@code benchmarks/load-baseline.properties}. A {@code .throughput} regresses when it is
+ * more than {@code maxRegression} lower than the baseline, a {@code .p99} when it is more than
+ * {@code maxRegression} higher. Keys missing on either side are not compared.
+ */
+final class LoadBaseline {
+
+    private LoadBaseline() {
+    }
+
+    static Properties read(Path path) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Adds the results to the ones already in the file, so the runs of all models end up in one file.
+     */
+    static void append(Path path, Properties results) throws IOException {
+        Properties properties = read(path);
+        properties.putAll(results);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "Load test results, copy to the baseline to accept them");
+        }
+    }
+
+    static List<String> regressions(Properties baseline, Properties current, double maxRegression) {
+        List<String> regressions = new ArrayList<>();
+        for (String key : new TreeSet<>(current.stringPropertyNames())) {
+            String before = baseline.getProperty(key);
+            if (before == null) {
+                continue;
+            }
+            double old = Double.parseDouble(before);
+            double now = Double.parseDouble(current.getProperty(key));
+            boolean regressed = key.endsWith(".throughput")
+                    ? now < old * (1 - maxRegression)
+                    : now > old * (1 + maxRegression);
+            if (regressed) {
+                regressions.add(String.format("%s: %.2f, baseline %.2f (%+.1f%%)", key, now, old, (now - old) / old * 100));
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.restwebservice.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking HTTP/1.1 client of the running application. A response other than 2xx is an
+ * {@link IllegalStateException}, so a scenario fails on its first unsuccessful request.
+ */
+class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final String baseUrl;
+
+    LoadClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    void get(String path, String token) throws IOException, InterruptedException {
+        send(request(path, token).GET(), path);
+    }
+
+    void post(String path, String token, String json) throws IOException, InterruptedException {
+        send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json)), path);
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private void send(HttpRequest.Builder request, String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("%s returned %d", path, response.statusCode()));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.restwebservice.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the weighted {@link Scenario} mix in two workload models. Latency is measured from the
+ * time a journey was due to start, not from when it actually started, so a stalled server is
+ * charged for every journey it delayed instead of only the one it stalled on (coordinated
+ * omission).
+ * <ul>
+ *     <li>closed: a fixed number of virtual users, each starting a journey every {@code pacing},
+ *     or right after the previous one with a zero pacing;</li>
+ *     <li>open: journeys arrive at a fixed mean rate with exponential gaps, regardless of how
+ *     many are still running.</li>
+ * </ul>
+ * Each run is preceded by a warmup of the same workload whose results are dropped.
+ */
+class LoadGenerator {
+
+    private final LoadClient client;
+    private final SyntheticDataset dataset;
+    private final List<String> tokens;
+    private final Scenario[] mix;
+    private final long seed;
+
+    /**
+     * {@code tokens} holds one access token per virtual user; {@code weights} the relative
+     * frequency of each scenario.
+     */
+    LoadGenerator(LoadClient client, SyntheticDataset dataset, List<String> tokens, Map<Scenario, Integer> weights, long seed) {
+        this.client = client;
+        this.dataset = dataset;
+        this.tokens = tokens;
+        List<Scenario> mix = new ArrayList<>();
+        weights.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                mix.add(scenario);
+            }
+        });
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix is empty");
+        }
+        this.mix = mix.toArray(Scenario[]::new);
+        this.seed = seed;
+    }
+
+    LoadReport closed(int users, Duration pacing, Duration warmup, Duration duration) throws InterruptedException {
+        if (users > tokens.size()) {
+            throw new IllegalArgumentException(String.format("%d virtual users need as many users, the dataset has %d", users, tokens.size()));
+        }
+        runClosed(users, pacing.toNanos(), warmup.toNanos(), new LoadReport("closed"));
+        LoadReport report = new LoadReport("closed");
+        runClosed(users, pacing.toNanos(), duration.toNanos(), report);
+        return report;
+    }
+
+    LoadReport open(double rate, int maxConcurrency, Duration warmup, Duration duration) throws InterruptedException {
+        runOpen(rate, maxConcurrency, warmup.toNanos(), new LoadReport("open"));
+        LoadReport report = new LoadReport("open");
+        runOpen(rate, maxConcurrency, duration.toNanos(), report);
+        return report;
+    }
+
+    private void runClosed(int users, long pacingNanos, long durationNanos, LoadReport report) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        for (int user = 0; user < users; user++) {
+            String token = tokens.get(user);
+            executor.execute(() -> {
+                long due = start;
+                while (due < end) {
+                    awaitNanos(due);
+                    run(token, due, report);
+                    due = pacingNanos > 0 ? due + pacingNanos : System.nanoTime();
+                }
+            });
+        }
+        await(executor, durationNanos);
+        report.finish(System.nanoTime() - start);
+    }
+
+    /**
+     * Journeys wait in the executor's queue once {@code maxConcurrency} are running; the wait
+     * counts into their latency. Users take turns, so a user's journeys overlap only when a whole
+     * round of users is still running.
+     */
+    private void runOpen(double rate, int maxConcurrency, long durationNanos, LoadReport report) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency);
+        Random arrivals = new Random(seed);
+        int arrival = 0;
+        double meanGapNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        for (long due = start; due < end; due += (long) (-Math.log(1 - arrivals.nextDouble()) * meanGapNanos)) {
+            awaitNanos(due);
+            long scheduled = due;
+            String token = tokens.get(arrival++ % tokens.size());
+            executor.execute(() -> run(token, scheduled, report));
+        }
+        await(executor, durationNanos);
+        report.finish(System.nanoTime() - start);
+    }
+
+    private void run(String token, long due, LoadReport report) {
+        Random random = ThreadLocalRandom.current();
+        Scenario scenario = mix[random.nextInt(mix.length)];
+        try {
+            scenario.run(client, token, dataset, random);
+            report.record(scenario, System.nanoTime() - due);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            report.error(scenario, e);
+        }
+    }
+
+    private static void awaitNanos(long due) {
+        for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static void await(ExecutorService executor, long durationNanos) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Load run did not finish in time");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.restwebservice.load;
+
+import com.example.restwebservice.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per {@link Scenario} of one run. Results are exported as
+ * {@code <model>.throughput} in journeys per second and {@code <model>.p99} over all journeys in
+ * milliseconds, the keys {@link LoadBaseline} compares. A scenario's own {@code .p99} is exported
+ * from {@value #MIN_SAMPLES} journeys on; with fewer it is little more than its slowest journey.
+ */
+class LoadReport {
+
+    private static final int MIN_SAMPLES = 500;
+
+    private final String model;
+    private final LatencyHistogram all = new LatencyHistogram();
+    private final Map<Scenario, LatencyHistogram> latencies = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+    private final AtomicReference<Exception> firstError = new AtomicReference<>();
+    private long elapsedNanos;
+
+    LoadReport(String model) {
+        this.model = model;
+        for (Scenario scenario : Scenario.values()) {
+            latencies.put(scenario, new LatencyHistogram());
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    void record(Scenario scenario, long nanos) {
+        latencies.get(scenario).record(nanos);
+        all.record(nanos);
+    }
+
+    void error(Scenario scenario, Exception e) {
+        errors.get(scenario).increment();
+        firstError.compareAndSet(null, e);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    String getModel() {
+        return model;
+    }
+
+    Exception getFirstError() {
+        return firstError.get();
+    }
+
+    long completed() {
+        return all.getCount();
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    double throughput() {
+        return elapsedNanos == 0 ? 0 : completed() * 1e9 / elapsedNanos;
+    }
+
+    Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(model + ".throughput", String.format("%.1f", throughput()));
+        properties.setProperty(model + ".p99", String.format("%.2f", millis(all.valueAt(0.99))));
+        latencies.forEach((scenario, latency) -> {
+            if (latency.getCount() >= MIN_SAMPLES) {
+                properties.setProperty(key(scenario) + ".p99", String.format("%.2f", millis(latency.valueAt(0.99))));
+            }
+        });
+        return properties;
+    }
+
+    String table() {
+        StringBuilder table = new StringBuilder(String.format("%s: %.1f journeys/s, p99 %.2f ms, %d errors%n%-10s %9s %7s %9s %9s %9s %9s",
+                model, throughput(), millis(all.valueAt(0.99)), errors(), "scenario", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        latencies.forEach((scenario, latency) -> table.append(String.format("%n%-10s %9d %7d %9.2f %9.2f %9.2f %9.2f",
+                scenario.name().toLowerCase(), latency.getCount(), errors.get(scenario).sum(), millis(latency.valueAt(0.5)),
+                millis(latency.valueAt(0.99)), millis(latency.valueAt(0.999)), millis(latency.getMax()))));
+        return table.toString();
+    }
+
+    private String key(Scenario scenario) {
+        return model + "." + scenario.name().toLowerCase();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.restwebservice.load;
+
+import com.example.restwebservice.datagen.DatasetGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Imported by {@link LoadTests} only. Deliberately not a {@code @TestConfiguration}: the component
+ * scan of {@code WebSecurityConfig} has no exclude filters and would add it to every test context.
+ */
+class LoadTestConfig {
+
+    @Bean
+    FlywayConfigurationCustomizer mySqlMigrations() {
+        return configuration -> configuration.resourceProvider(new MySqlMigrations(configuration.getLocations()));
+    }
+
+    @Bean
+    DatasetGenerator datasetGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+                                      @Value("${load.dataset.seed}") long seed,
+                                      @Value("${load.dataset.categories}") int categories,
+                                      @Value("${load.dataset.products}") int products,
+                                      @Value("${load.dataset.users}") int users,
+                                      @Value("${load.dataset.orders}") int orders,
+                                      @Value("${load.dataset.product-skew}") double productSkew) {
+        return DatasetGenerator.builder()
+                .jdbcTemplate(jdbcTemplate)
+                .passwordHash(passwordEncoder.encode("password"))
+                .seed(seed)
+                .categories(categories)
+                .products(products)
+                .users(users)
+                .orders(orders)
+                .productSkew(productSkew)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.restwebservice.load;
+
+import com.example.restwebservice.config.JwtProvider;
+import com.example.restwebservice.datagen.DatasetGenerator;
+import com.example.restwebservice.dto.RoleDto;
+import com.example.restwebservice.dto.UserDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load of the application on H2 migrated by Flyway and filled by the
+ * {@link DatasetGenerator}, excluded from the default build.
+ * Run with {@code mvn -Pload-test test}; settings are the {@code load.*} properties of the
+ * {@code load} profile and can be overridden with {@code -D}. Results go to {@code load.results}
+ * and fail the build when they regress past {@code load.baseline} or any journey fails.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+@Import(LoadTestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Value("#{${load.mix}}")
+    private Map<String, Integer> mix;
+
+    @Value("${load.dataset.seed}")
+    private long seed;
+
+    @Value("${load.dataset.product-skew}")
+    private double productSkew;
+
+    @Value("${load.warmup}")
+    private Duration warmup;
+
+    @Value("${load.duration}")
+    private Duration duration;
+
+    @Value("${load.closed.users}")
+    private int closedUsers;
+
+    @Value("${load.closed.pacing}")
+    private Duration closedPacing;
+
+    @Value("${load.open.rate}")
+    private double openRate;
+
+    @Value("${load.open.max-concurrency}")
+    private int openMaxConcurrency;
+
+    @Value("${load.baseline}")
+    private Path baseline;
+
+    @Value("${load.results}")
+    private Path results;
+
+    @Value("${load.max-regression}")
+    private double maxRegression;
+
+    private LoadGenerator generator;
+
+    @BeforeAll
+    void seed() {
+        SyntheticDataset dataset = new SyntheticDataset(datasetGenerator.generate(), productSkew);
+        List<String> tokens = IntStream.range(0, dataset.users())
+                .mapToObj(user -> jwtProvider.generateAccessToken(UserDto.builder().email(dataset.email(user))
+                        .roles(List.of(RoleDto.builder().name("USER").build())).build()))
+                .toList();
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        mix.forEach((scenario, weight) -> weights.put(Scenario.valueOf(scenario.toUpperCase()), weight));
+        generator = new LoadGenerator(new LoadClient(port), dataset, tokens, weights, seed);
+    }
+
+    @Test
+    void closedWorkload() throws Exception {
+        check(generator.closed(closedUsers, closedPacing, warmup, duration));
+    }
+
+    @Test
+    void openWorkload() throws Exception {
+        check(generator.open(openRate, openMaxConcurrency, warmup, duration));
+    }
+
+    private void check(LoadReport report) throws Exception {
+        log.info("{}", report.table());
+        Properties current = report.toProperties();
+        LoadBaseline.append(results, current);
+        assertThat(report.errors())
+                .withFailMessage(() -> String.format("%d of %d %s journeys failed, first: %s", report.errors(),
+                        report.errors() + report.completed(), report.getModel(), report.getFirstError()))
+                .isZero();
+        assertThat(LoadBaseline.regressions(LoadBaseline.read(baseline), current, maxRegression / 100))
+                .as("Regressions over %.0f%% against %s", maxRegression, baseline)
+                .isEmpty();
+    }
+}
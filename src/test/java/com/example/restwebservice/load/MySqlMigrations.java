@@ -0,0 +1,111 @@
+package com.example.restwebservice.load;
+
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the MySQL migrations to Flyway rewritten where H2 differs in MySQL mode: the MySQL 8 only
+ * {@code VISIBLE} index option is removed, and indexes declared in {@code CREATE TABLE} get the
+ * table name as prefix, since H2 wants index names unique per schema rather than per table.
+ * Everything else, including {@code USE shop_hib}, runs as written.
+ */
+class MySqlMigrations implements ResourceProvider {
+
+    private static final Pattern VISIBLE = Pattern.compile("\\)\\s+VISIBLE\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE\\s+(?:`\\w+`\\.)?`(\\w+)`.*?\\);",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern INDEX = Pattern.compile("INDEX\\s+`(\\w+)`", Pattern.CASE_INSENSITIVE);
+
+    private final List<LoadableResource> resources = new ArrayList<>();
+
+    MySqlMigrations(Location[] locations) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        try {
+            for (Location location : locations) {
+                String root = location.getRootPath();
+                for (Resource resource : resolver.getResources("classpath*:" + root + "/**/*.sql")) {
+                    String url = resource.getURL().toString();
+                    String relative = url.substring(url.lastIndexOf(root + "/") + root.length() + 1);
+                    String sql = resource.getContentAsString(StandardCharsets.UTF_8);
+                    resources.add(new Migration(root + "/" + relative, relative, rewrite(sql)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String rewrite(String sql) {
+        String visible = VISIBLE.matcher(sql).replaceAll(")");
+        return CREATE_TABLE.matcher(visible).replaceAll(table -> Matcher.quoteReplacement(
+                INDEX.matcher(table.group()).replaceAll("INDEX `" + table.group(1) + "_$1`")));
+    }
+
+    @Override
+    public LoadableResource getResource(String name) {
+        return resources.stream()
+                .filter(resource -> resource.getRelativePath().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+        return resources.stream()
+                .filter(resource -> resource.getFilename().startsWith(prefix))
+                .filter(resource -> Arrays.stream(suffixes).anyMatch(resource.getFilename()::endsWith))
+                .toList();
+    }
+
+    private static final class Migration extends LoadableResource {
+        private final String absolutePath;
+        private final String relativePath;
+        private final String sql;
+
+        private Migration(String absolutePath, String relativePath, String sql) {
+            this.absolutePath = absolutePath;
+            this.relativePath = relativePath;
+            this.sql = sql;
+        }
+
+        @Override
+        public Reader read() {
+            return new StringReader(sql);
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return absolutePath;
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return null;
+        }
+
+        @Override
+        public String getFilename() {
+            return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getRelativePath() {
+            return relativePath;
+        }
+    }
+}
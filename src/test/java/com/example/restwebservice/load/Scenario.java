@@ -0,0 +1,61 @@
+package com.example.restwebservice.load;
+
+import com.example.restwebservice.datagen.DatasetGenerator;
+
+import java.util.Random;
+
+/**
+ * A user journey of one to two requests against the real controllers. Latency is recorded per
+ * journey.
+ */
+enum Scenario {
+
+    /**
+     * A page of a category, then one of its products.
+     */
+    BROWSE {
+        @Override
+        void run(LoadClient client, String token, SyntheticDataset dataset, Random random) throws Exception {
+            client.get("/products/category/" + dataset.categoryId(random) + "?pageNumber=" + random.nextInt(5) + "&pageSize=20", token);
+            client.get("/products/" + dataset.productId(random), token);
+        }
+    },
+
+    /**
+     * A keyword search within a price range.
+     */
+    SEARCH {
+        @Override
+        void run(LoadClient client, String token, SyntheticDataset dataset, Random random) throws Exception {
+            int priceFrom = random.nextInt(1000);
+            client.post("/products/search?pageNumber=0&pageSize=20", token, String.format(
+                    "{\"searchKey\":\"%s\",\"priceFrom\":%d,\"priceTo\":%d}",
+                    DatasetGenerator.WORDS.get(random.nextInt(DatasetGenerator.WORDS.size())), priceFrom, priceFrom + 500));
+        }
+    },
+
+    /**
+     * A product into the cart, then the cart.
+     */
+    CART {
+        @Override
+        void run(LoadClient client, String token, SyntheticDataset dataset, Random random) throws Exception {
+            client.post("/cart/addProduct/" + dataset.productId(random) + "?quantity=" + (1 + random.nextInt(3)), token, null);
+            client.get("/cart", token);
+        }
+    },
+
+    /**
+     * Products into the cart, then an order of the cart.
+     */
+    CHECKOUT {
+        @Override
+        void run(LoadClient client, String token, SyntheticDataset dataset, Random random) throws Exception {
+            client.post("/cart/addProducts", token, String.format("{\"%d\":%d,\"%d\":1}",
+                    dataset.productId(random), 1 + random.nextInt(3), dataset.productId(random)));
+            client.post("/orders", token, null);
+        }
+    };
+
+    abstract void run(LoadClient client, String token, SyntheticDataset dataset, Random random) throws Exception;
+}
@@ -0,0 +1,38 @@
+package com.example.restwebservice.load;
+
+import com.example.restwebservice.datagen.DatasetGenerator;
+import com.example.restwebservice.datagen.GeneratedDataset;
+import com.example.restwebservice.datagen.ZipfSampler;
+
+import java.util.Random;
+
+/**
+ * The generated data journeys pick from. Products follow a Zipf popularity with the lowest ids
+ * the most popular; categories and users are uniform.
+ */
+class SyntheticDataset {
+
+    private final GeneratedDataset dataset;
+    private final ZipfSampler productSampler;
+
+    SyntheticDataset(GeneratedDataset dataset, double productSkew) {
+        this.dataset = dataset;
+        this.productSampler = new ZipfSampler(dataset.products(), productSkew);
+    }
+
+    String email(int user) {
+        return DatasetGenerator.email(dataset.firstUserId() + user);
+    }
+
+    int users() {
+        return dataset.users();
+    }
+
+    int categoryId(Random random) {
+        return dataset.firstCategoryId() + random.nextInt(dataset.categories());
+    }
+
+    int productId(Random random) {
+        return dataset.firstProductId() + productSampler.sample(random) - 1;
+    }
+}
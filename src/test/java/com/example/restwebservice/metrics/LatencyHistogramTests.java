@@ -0,0 +1,90 @@
+package com.example.restwebservice.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTests {
+
+    @Test
+    void bucketsCoverTheRangeWithoutGaps() {
+        assertThat(LatencyHistogram.BUCKETS).isEqualTo(1184);
+        assertThat(LatencyHistogram.index(LatencyHistogram.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.BUCKETS - 1)).isEqualTo(LatencyHistogram.MAX_VALUE);
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            long lower = LatencyHistogram.upperBound(i - 1) + 1;
+            assertThat(LatencyHistogram.index(lower)).as("lower bound of bucket %d", i).isEqualTo(i);
+            assertThat(LatencyHistogram.index(LatencyHistogram.upperBound(i))).as("upper bound of bucket %d", i).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 64; value++) {
+            assertThat(LatencyHistogram.upperBound(LatencyHistogram.index(value))).isEqualTo(value);
+        }
+        assertThat(LatencyHistogram.index(64)).isEqualTo(LatencyHistogram.index(65));
+    }
+
+    @Test
+    void bucketBoundsStayWithinOneThirtySecond() {
+        for (long value : samples()) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+            assertThat(upper).isGreaterThanOrEqualTo(value);
+            assertThat((double) (upper - value) / value).as("relative error at %d", value).isLessThanOrEqualTo(1.0 / 32);
+        }
+    }
+
+    @Test
+    void clampsValuesOutsideTheRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getMax()).isEqualTo(LatencyHistogram.MAX_VALUE);
+        assertThat(histogram.valueAt(0.5)).isZero();
+        assertThat(histogram.valueAt(1.0)).isEqualTo(LatencyHistogram.MAX_VALUE);
+    }
+
+    @Test
+    void quantilesAreUpperBoundsOfTheRankedBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.valueAt(0.99)).isZero();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertThat(histogram.getSum()).isEqualTo(500_500_000L);
+        assertThat(histogram.valueAt(0.5)).isBetween(500_000L, 500_000L + 500_000L / 32);
+        assertThat(histogram.valueAt(0.99)).isBetween(990_000L, 990_000L + 990_000L / 32);
+        assertThat(histogram.valueAt(0.999)).isBetween(999_000L, 1_000_000L);
+        assertThat(histogram.valueAt(1.0)).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    void cumulativeCountsEndWithTheTotal() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1_000);
+        histogram.record(1_000_000);
+        histogram.record(1_000_001);
+        histogram.record(LatencyHistogram.MAX_VALUE);
+        assertThat(histogram.cumulativeCounts(new long[]{9, 10, 1_000_000, LatencyHistogram.MAX_VALUE}))
+                .containsExactly(0, 1, 2, 5, 5);
+        assertThat(histogram.cumulativeCounts(new long[]{1_000_000 + 1_000_000 / 32})).containsExactly(4, 5);
+    }
+
+    private static List<Long> samples() {
+        List<Long> samples = new ArrayList<>();
+        for (int exponent = 5; exponent <= 40; exponent++) {
+            long power = 1L << exponent;
+            samples.add(power - 1);
+            samples.add(power);
+            samples.add(power + 1);
+            samples.add(power + power / 3);
+        }
+        return samples;
+    }
+}
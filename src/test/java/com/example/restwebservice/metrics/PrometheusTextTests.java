@@ -0,0 +1,62 @@
+package com.example.restwebservice.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrometheusTextTests {
+
+    private static final String LABELS = "layer=\"controller\",class=\"ProductController\",method=\"getProductById\"";
+
+    @Test
+    void rendersLatencyAsCumulativeHistogram() {
+        MethodMetrics method = new MethodMetrics("controller", "ProductController", "getProductById");
+        method.getLatency().record(2_000_000);
+        method.getLatency().record(20_000_000);
+        method.getLatency().record(3_000_000_000L);
+
+        List<String> lines = PrometheusText.render(List.of(method), List.of()).lines().toList();
+
+        assertThat(lines).containsSubsequence(
+                "# HELP method_latency_seconds Latency of controller and service methods",
+                "# TYPE method_latency_seconds histogram",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"0.0001\"} 0",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"0.001\"} 0",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"0.0025\"} 1",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"0.025\"} 2",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"2.5\"} 2",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"5\"} 3",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"10\"} 3",
+                "method_latency_seconds_bucket{" + LABELS + ",le=\"+Inf\"} 3",
+                "method_latency_seconds_sum{" + LABELS + "} 3.022",
+                "method_latency_seconds_count{" + LABELS + "} 3",
+                "# TYPE method_latency_quantile_seconds gauge");
+        assertThat(lines.stream().filter(line -> line.startsWith("method_latency_seconds_bucket"))).hasSize(17);
+        assertThat(lines).anyMatch(line -> line.startsWith("method_latency_quantile_seconds{" + LABELS + ",quantile=\"0.5\"} 0.02"));
+    }
+
+    @Test
+    void rendersSourcesAsSnakeCaseSamples() {
+        MetricsSource source = new MetricsSource() {
+            @Override
+            public String metricsName() {
+                return "catalogCache";
+            }
+
+            @Override
+            public Map<String, Number> metrics() {
+                return Map.of("products.hitRatio", 0.5, "earlyRefreshes", 3L);
+            }
+        };
+
+        String text = PrometheusText.render(List.of(), List.of(source));
+
+        assertThat(text).contains("# TYPE method_latency_seconds histogram\n")
+                .contains("# TYPE catalog_cache_early_refreshes untyped\ncatalog_cache_early_refreshes 3\n")
+                .contains("# TYPE catalog_cache_products_hit_ratio untyped\ncatalog_cache_products_hit_ratio 0.5\n");
+        assertThat(text.indexOf("catalog_cache_early_refreshes")).isLessThan(text.indexOf("catalog_cache_products_hit_ratio"));
+    }
+}
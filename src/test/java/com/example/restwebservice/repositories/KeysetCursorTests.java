@@ -0,0 +1,57 @@
+package com.example.restwebservice.repositories;
+
+import com.example.restwebservice.entities.Order;
+import com.example.restwebservice.entities.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class KeysetCursorTests {
+
+    @Test
+    void roundTripsTypedValues() {
+        Map<String, Object> keys = keys("date", LocalDate.of(2023, 1, 31), "id", 42);
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(keys), Order.class, SortKeys.sort(Order.class, "date")))
+                .containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void roundTripsReservedCharacters() {
+        Map<String, Object> keys = keys("name", "a=b&c d/é", "id", 7);
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(keys), Product.class, SortKeys.sort(Product.class, "name")))
+                .containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void tellsNullApartFromEmptyAndLiteralNull() {
+        Sort byName = SortKeys.sort(Product.class, "name");
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(keys("name", null, "id", 1)), Product.class, byName))
+                .containsEntry("name", null);
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(keys("name", "", "id", 1)), Product.class, byName))
+                .containsEntry("name", "");
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(keys("name", "null", "id", 1)), Product.class, byName))
+                .containsEntry("name", "null");
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String cursor = KeysetCursor.encode(keys("price", 100, "id", 1));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> KeysetCursor.decode(cursor, Product.class, SortKeys.sort(Product.class, "name")));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> KeysetCursor.decode("not a cursor", Product.class, SortKeys.sort(Product.class, "id")));
+    }
+
+    private static Map<String, Object> keys(String key, Object value, String idKey, int id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(key, value);
+        keys.put(idKey, id);
+        return keys;
+    }
+}
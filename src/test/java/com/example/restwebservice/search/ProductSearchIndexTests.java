@@ -0,0 +1,105 @@
+package com.example.restwebservice.search;
+
+import com.example.restwebservice.cache.SearchResultCache;
+import com.example.restwebservice.dto.SearchParamsDto;
+import com.example.restwebservice.repositories.CategoryRepository;
+import com.example.restwebservice.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTests {
+
+    private SearchResultCache searchResultCache;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findAllIndexed()).thenReturn(List.of(
+                new IndexedCategory(1, "Mobile Phones"),
+                new IndexedCategory(2, "Laptops")));
+        when(productRepository.findAllIndexed()).thenReturn(List.of(
+                new IndexedProduct(10, "Phone Alpha", "black smartphone", 300, 1),
+                new IndexedProduct(11, "Phone Beta", "white smartphone", 100, 1),
+                new IndexedProduct(12, "Phone Gamma", "red", 200, 1),
+                new IndexedProduct(13, "Laptop Alpha", "black notebook", 900, 2),
+                new IndexedProduct(14, "Laptop Beta", "silver notebook", 200, 2),
+                new IndexedProduct(15, "Phone Delta", "black", 200, 1)));
+        searchResultCache = new SearchResultCache(100, Duration.ofMinutes(5));
+        index = new ProductSearchIndex(productRepository, categoryRepository, searchResultCache);
+        index.rebuild();
+    }
+
+    @Test
+    void matchesEveryTokenAsPrefix() {
+        assertThat(index.search(params("pho bla", 0, 0, null), 0, 10, "id")).containsExactly(10, 15);
+        assertThat(index.search(params("SMART", 0, 0, null), 0, 10, "id")).containsExactly(10, 11);
+        assertThat(index.search(params("phone notebook", 0, 0, null), 0, 10, "id")).isEmpty();
+    }
+
+    @Test
+    void filtersByPriceAndCategoryName() {
+        assertThat(index.search(params(null, 150, 300, null), 0, 10, "id")).containsExactly(10, 12, 14, 15);
+        assertThat(index.search(params("alpha", 0, 0, "lap"), 0, 10, "id")).containsExactly(13);
+        assertThat(index.search(params(null, 0, 0, "mobile"), 0, 10, "id")).containsExactly(10, 11, 12, 15);
+    }
+
+    @Test
+    void ordersBySortKeyThenId() {
+        assertThat(index.search(params(null, 0, 0, null), 0, 10, "price")).containsExactly(11, 12, 14, 15, 10, 13);
+        assertThat(index.search(params(null, 0, 0, null), 0, 10, "name")).containsExactly(13, 14, 10, 11, 15, 12);
+    }
+
+    @Test
+    void pagesConcatenateToTheFullOrder() {
+        List<Integer> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            paged.addAll(index.search(params(null, 0, 0, null), page, 4, "price"));
+        }
+        assertThat(paged).containsExactly(11, 12, 14, 15, 10, 13);
+        assertThat(index.search(params(null, 0, 0, null), 1, 2, "price")).containsExactly(14, 15);
+        assertThat(index.search(params(null, 0, 0, null), 0, 0, "price")).isEmpty();
+    }
+
+    @Test
+    void searchAfterContinuesFromTheLastSortKeys() {
+        List<IndexedProduct> first = index.searchAfter(params(null, 0, 0, null), null, 3, "price");
+        assertThat(first).extracting(IndexedProduct::id).containsExactly(11, 12, 14);
+        Map<String, Object> after = ProductSearchIndex.sortKeys(first.get(2), "price");
+        assertThat(index.searchAfter(params(null, 0, 0, null), after, 3, "price"))
+                .extracting(IndexedProduct::id)
+                .containsExactly(15, 10, 13);
+    }
+
+    @Test
+    void reindexedAndRemovedProductsLeaveNoStaleTokens() {
+        index.remove(10);
+        assertThat(index.search(params("alpha", 0, 0, null), 0, 10, "id")).containsExactly(13);
+        index.removeCategory(2);
+        assertThat(index.search(params("alpha", 0, 0, null), 0, 10, "id")).isEmpty();
+    }
+
+    @Test
+    void rebuildDropsCachedSearchResults() {
+        SearchParamsDto params = params("phone", 0, 0, null);
+        searchResultCache.get(params, 0, 10, "id", false, null, () -> List.of(15));
+        index.rebuild();
+        assertThat(searchResultCache.get(params, 0, 10, "id", false, null, () -> List.of(10, 11)))
+                .containsExactly(10, 11);
+    }
+
+    private static SearchParamsDto params(String searchKey, int priceFrom, int priceTo, String categoryName) {
+        return SearchParamsDto.builder().searchKey(searchKey).priceFrom(priceFrom).priceTo(priceTo)
+                .categoryName(categoryName).build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.restwebservice.services;
+
+import com.example.restwebservice.dto.CartDto;
+import com.example.restwebservice.dto.CartLineDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CartStoreTests {
+
+    @Test
+    void keepsQuantityAndTotalsPerProduct() {
+        CartStore store = store(16, 100, Duration.ofHours(1));
+        store.add("user", 1, "Phone", 100, 2);
+        store.add("user", 2, "Cable", 5, 1);
+        CartDto cart = store.add("user", 1, "Phone", 100, 1);
+        assertThat(cart.getLines()).extracting(CartLineDto::getProductId, CartLineDto::getQuantity)
+                .containsExactly(tuple(1, 3), tuple(2, 1));
+        assertThat(cart.getTotalPrice()).isEqualTo(305);
+        assertThat(cart.getTotalQuantity()).isEqualTo(4);
+        cart = store.remove("user", 1, 5);
+        assertThat(cart.getLines()).extracting(CartLineDto::getProductId).containsExactly(2);
+        assertThat(cart.getTotalPrice()).isEqualTo(5);
+    }
+
+    @Test
+    void totalsDoNotOverflowAndLinesAreBounded() {
+        CartStore store = store(16, 100, Duration.ofHours(1));
+        for (int product = 1; product <= 3; product++) {
+            store.add("user", product, "Product", Integer.MAX_VALUE, CartStore.MAX_QUANTITY);
+        }
+        CartDto cart = store.get("user");
+        assertThat(cart.getTotalPrice()).isEqualTo(3L * Integer.MAX_VALUE * CartStore.MAX_QUANTITY);
+        assertThat(cart.getTotalQuantity()).isEqualTo(3L * CartStore.MAX_QUANTITY);
+        assertThatIllegalArgumentException().isThrownBy(() -> store.add("user", 1, "Product", Integer.MAX_VALUE, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> store.add("user", 4, "Product", 1, CartStore.MAX_QUANTITY + 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> store.addAll("user", List.of(
+                new CartLineDto(5, "Product", 1, 1), new CartLineDto(1, "Product", 1, 1))));
+        assertThat(store.get("user")).isEqualTo(cart);
+    }
+
+    @Test
+    void snapshotsAreIsolatedFromTheStore() {
+        CartStore store = store(16, 100, Duration.ofHours(1));
+        CartDto snapshot = store.add("user", 1, "Phone", 100, 1);
+        snapshot.getLines().get(0).setQuantity(50);
+        snapshot.getLines().add(new CartLineDto(2, "Cable", 5, 1));
+        store.add("user", 1, "Phone", 100, 1);
+        assertThat(store.get("user").getLines()).containsExactly(new CartLineDto(1, "Phone", 100, 2));
+        assertThat(snapshot.getLines().get(0).getQuantity()).isEqualTo(50);
+    }
+
+    @Test
+    void removeOrderedKeepsLinesAddedAfterTheSnapshot() {
+        CartStore store = store(16, 100, Duration.ofHours(1));
+        store.add("user", 1, "Phone", 100, 2);
+        CartDto ordered = store.get("user");
+        store.add("user", 1, "Phone", 100, 1);
+        store.add("user", 2, "Cable", 5, 4);
+        CartDto left = store.removeOrdered("user", ordered);
+        assertThat(left.getLines()).containsExactly(new CartLineDto(1, "Phone", 100, 1), new CartLineDto(2, "Cable", 5, 4));
+        assertThat(left.getTotalPrice()).isEqualTo(120);
+        assertThat(store.removeOrdered("user", left).isEmpty()).isTrue();
+    }
+
+    @Test
+    void sweepsCartsIdleLongerThanTheTtl() throws InterruptedException {
+        CartStore store = store(16, 100, Duration.ofMillis(50));
+        store.add("idle", 1, "Phone", 100, 1);
+        Thread.sleep(100);
+        store.add("active", 1, "Phone", 100, 1);
+        store.removeIdle();
+        assertThat(store.get("idle").isEmpty()).isTrue();
+        assertThat(store.get("active").isEmpty()).isFalse();
+        assertThat(store.metrics()).containsEntry("expired", 1L);
+    }
+
+    @Test
+    void fullShardEvictsTheLeastRecentlyUsedCart() {
+        CartStore store = store(1, 3, Duration.ofHours(1));
+        store.add("first", 1, "Phone", 100, 1);
+        store.add("second", 1, "Phone", 100, 1);
+        store.add("third", 1, "Phone", 100, 1);
+        store.get("first");
+        store.remove("second", 2, 1);
+        store.add("fourth", 1, "Phone", 100, 1);
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.get("third").isEmpty()).isTrue();
+        store.add("fifth", 1, "Phone", 100, 1);
+        assertThat(store.get("first").isEmpty()).isTrue();
+        assertThat(store.get("second").isEmpty()).isFalse();
+        assertThat(store.get("fourth").isEmpty()).isFalse();
+        assertThat(store.get("fifth").isEmpty()).isFalse();
+        assertThat(store.metrics()).containsEntry("evicted", 2L);
+    }
+
+    @Test
+    void concurrentAddsEitherContinueTheCartOrStartANewOne() throws Exception {
+        CartStore store = store(1, 4, Duration.ofHours(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> restarts = new ArrayList<>();
+            for (int user = 0; user < 8; user++) {
+                String login = "user" + user;
+                restarts.add(executor.submit(() -> {
+                    long quantity = 0;
+                    int restarted = 0;
+                    for (int i = 0; i < CartStore.MAX_QUANTITY; i++) {
+                        long added = store.add(login, 1, "Phone", 1, 1).getTotalQuantity();
+                        if (added != quantity + 1) {
+                            assertThat(added).isEqualTo(1);
+                            restarted++;
+                        }
+                        quantity = added;
+                    }
+                    return restarted;
+                }));
+            }
+            long restarted = 0;
+            for (Future<Integer> result : restarts) {
+                restarted += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(store.size()).isLessThanOrEqualTo(4);
+            assertThat(restarted).isEqualTo(store.metrics().get("evicted").longValue() - (8 - store.size()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void restoresCartsFromTheSnapshotFile(@TempDir Path dir) {
+        String path = dir.resolve("carts.json").toString();
+        CartStore store = new CartStore(16, 100, Duration.ofHours(1), path, new ObjectMapper());
+        store.add("user", 1, "Phone", 100, 2);
+        store.saveSnapshot();
+        CartStore restored = new CartStore(16, 100, Duration.ofHours(1), path, new ObjectMapper());
+        restored.loadSnapshot();
+        assertThat(restored.get("user")).isEqualTo(store.get("user"));
+    }
+
+    private static CartStore store(int shards, int maxCarts, Duration ttl) {
+        return new CartStore(shards, maxCarts, ttl, "", new ObjectMapper());
+    }
+}
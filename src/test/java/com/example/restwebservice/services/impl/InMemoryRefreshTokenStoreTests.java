@@ -0,0 +1,27 @@
+package com.example.restwebservice.services.impl;
+
+import com.example.restwebservice.services.RefreshTokenStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRefreshTokenStoreTests extends RefreshTokenStoreTests {
+
+    @Override
+    RefreshTokenStore createStore() {
+        return new InMemoryRefreshTokenStore(100);
+    }
+
+    @Test
+    void fullStoreDropsTokensClosestToExpiry() {
+        RefreshTokenStore store = new InMemoryRefreshTokenStore(2);
+        store.put("first@aa.aa", "first", Instant.now().plusSeconds(60));
+        store.put("second@aa.aa", "second", Instant.now().plusSeconds(3600));
+        store.put("third@aa.aa", "third", Instant.now().plusSeconds(3600));
+        assertThat(store.matches("first@aa.aa", "first")).isFalse();
+        assertThat(store.matches("second@aa.aa", "second")).isTrue();
+        assertThat(store.matches("third@aa.aa", "third")).isTrue();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.restwebservice.services.impl;
+
+import com.example.restwebservice.services.RefreshTokenStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs against H2 in MySQL mode with the table of {@code V1_4__createRefreshTokens.sql}.
+ */
+class JdbcRefreshTokenStoreTests extends RefreshTokenStoreTests {
+
+    @Override
+    RefreshTokenStore createStore() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:refresh_tokens;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS refresh_tokens");
+        jdbcTemplate.execute("CREATE TABLE refresh_tokens (email VARCHAR(45) NOT NULL, token_digest CHAR(64) NOT NULL, "
+                + "expires_at TIMESTAMP NOT NULL, PRIMARY KEY (email))");
+        return new JdbcRefreshTokenStore(jdbcTemplate);
+    }
+}
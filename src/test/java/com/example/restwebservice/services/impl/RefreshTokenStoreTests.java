@@ -0,0 +1,115 @@
+package com.example.restwebservice.services.impl;
+
+import com.example.restwebservice.services.RefreshTokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link RefreshTokenStore} has to share.
+ */
+abstract class RefreshTokenStoreTests {
+
+    private static final String EMAIL = "user@aa.aa";
+
+    private RefreshTokenStore store;
+
+    abstract RefreshTokenStore createStore();
+
+    @BeforeEach
+    void setUp() {
+        store = createStore();
+    }
+
+    @Test
+    void matchesOnlyTheCurrentToken() {
+        store.put(EMAIL, "first", inOneHour());
+        assertThat(store.matches(EMAIL, "first")).isTrue();
+        assertThat(store.matches(EMAIL, "other")).isFalse();
+        assertThat(store.matches("other@aa.aa", "first")).isFalse();
+        store.put(EMAIL, "second", inOneHour());
+        assertThat(store.matches(EMAIL, "first")).isFalse();
+        assertThat(store.matches(EMAIL, "second")).isTrue();
+    }
+
+    @Test
+    void replaceRotatesTheToken() {
+        store.put(EMAIL, "first", inOneHour());
+        assertThat(store.replace(EMAIL, "first", "second", inOneHour())).isTrue();
+        assertThat(store.matches(EMAIL, "second")).isTrue();
+        assertThat(store.matches(EMAIL, "first")).isFalse();
+    }
+
+    @Test
+    void replaceWithReusedOldTokenFailsAndKeepsTheRotatedOne() {
+        store.put(EMAIL, "first", inOneHour());
+        store.replace(EMAIL, "first", "second", inOneHour());
+        assertThat(store.replace(EMAIL, "first", "stolen", inOneHour())).isFalse();
+        assertThat(store.matches(EMAIL, "second")).isTrue();
+        assertThat(store.matches(EMAIL, "stolen")).isFalse();
+    }
+
+    @Test
+    void replaceOfUnknownUserFails() {
+        assertThat(store.replace(EMAIL, "first", "second", inOneHour())).isFalse();
+        assertThat(store.matches(EMAIL, "second")).isFalse();
+    }
+
+    @Test
+    void expiredTokenDoesNotMatchOrRotate() {
+        store.put(EMAIL, "first", Instant.now().minusSeconds(1));
+        assertThat(store.matches(EMAIL, "first")).isFalse();
+        assertThat(store.replace(EMAIL, "first", "second", inOneHour())).isFalse();
+        assertThat(store.matches(EMAIL, "second")).isFalse();
+    }
+
+    @Test
+    void removeExpiredKeepsLiveTokens() {
+        store.put(EMAIL, "expired", Instant.now().minusSeconds(1));
+        store.put("live@aa.aa", "live", inOneHour());
+        store.removeExpired();
+        store.put(EMAIL, "again", inOneHour());
+        assertThat(store.matches(EMAIL, "again")).isTrue();
+        assertThat(store.matches("live@aa.aa", "live")).isTrue();
+        store.remove("live@aa.aa");
+        assertThat(store.matches("live@aa.aa", "live")).isFalse();
+    }
+
+    @Test
+    void concurrentRefreshesWithTheSameTokenRotateOnce() throws Exception {
+        store.put(EMAIL, "first", inOneHour());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String next = "next" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return store.replace(EMAIL, "first", next, inOneHour());
+            }));
+        }
+        start.countDown();
+        int rotated = 0;
+        for (Future<Boolean> result : results) {
+            rotated += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertThat(rotated).isEqualTo(1);
+        assertThat(store.matches(EMAIL, "first")).isFalse();
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plus(Duration.ofHours(1));
+    }
+}